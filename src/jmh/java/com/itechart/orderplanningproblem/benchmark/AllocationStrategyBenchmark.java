@@ -0,0 +1,59 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places single-item orders for random customers and items with every allocation strategy, e.g.
+ * -p strategy=radius -p radiusKm=2000 -p distanceMode=spatial. Orders the radius strategy rejects because no
+ * warehouse within the radius has the item return null and still count as operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AllocationStrategyBenchmark {
+
+    @Param({"nearest", "radius", "least-loaded"})
+    private String strategy;
+
+    @Benchmark
+    public OrderDto createOrder(final ApplicationState state) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ItemDto item = ItemDto.builder()
+                .name(BenchmarkDataset.itemName(random.nextInt(state.getItems()) + 1))
+                .build();
+        try {
+            return state.getBean(OrderService.class)
+                    .create(new CreateOrderDto(1.0, item, random.nextInt(state.getCustomers()) + 1L), strategy);
+        } catch (UnprocessableEntityException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OrderDto createOrderConcurrently(final ApplicationState state) throws Exception {
+        return createOrder(state);
+    }
+
+}
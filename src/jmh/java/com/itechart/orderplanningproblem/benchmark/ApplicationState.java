@@ -0,0 +1,97 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.OrderPlanningProblemApplication;
+import com.itechart.orderplanningproblem.service.DistanceService;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.distance.SpatialIndexWarehouseLocator;
+import com.itechart.orderplanningproblem.service.distance.TopKWarehouseLocator;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Application context on the embedded H2 database of the test profile, seeded once per trial.
+ * The dataset size is set with JMH parameters, e.g. -p customers=10000 -p warehouses=500 -p items=5000.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    @Param("1000")
+    private int customers;
+    @Param("50")
+    private int warehouses;
+    @Param("500")
+    private int items;
+    @Param("50")
+    private int itemsPerWarehouse;
+    @Param({"table", "spatial", "top-k"})
+    private String distanceMode;
+    @Param("20")
+    private int topK;
+    @Param("5000")
+    private double radiusKm;
+    @Param("5")
+    private int leastLoadedK;
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDataset dataset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderPlanningProblemApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("distance.mode=" + distanceMode,
+                        "distance.top-k.size=" + topK,
+                        "allocation.radius.km=" + radiusKm,
+                        "allocation.least-loaded.k=" + leastLoadedK,
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+        dataset = new BenchmarkDataset(customers, warehouses, items, itemsPerWarehouse);
+        WarehouseLocator warehouseLocator = context.getBean(WarehouseLocator.class);
+        dataset.seed(context.getBean(JdbcTemplate.class), context.getBean(DistanceService.class),
+                warehouseLocator.usesDistanceTable() ? warehouseLocator.distanceTableLimit().orElse(warehouses) : 0);
+        context.getBean(StockIndex.class).rebuild();
+        context.getBeanProvider(SpatialIndexWarehouseLocator.class).ifAvailable(SpatialIndexWarehouseLocator::rebuild);
+        context.getBeanProvider(TopKWarehouseLocator.class).ifAvailable(TopKWarehouseLocator::rebuild);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int getCustomers() {
+        return customers;
+    }
+
+    int getWarehouses() {
+        return warehouses;
+    }
+
+    int getItems() {
+        return items;
+    }
+
+    int getItemsPerWarehouse() {
+        return itemsPerWarehouse;
+    }
+
+    BenchmarkDataset getDataset() {
+        return dataset;
+    }
+
+}
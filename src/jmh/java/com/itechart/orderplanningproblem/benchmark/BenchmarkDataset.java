@@ -0,0 +1,145 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.service.DistanceService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Seeds the database with plain JDBC batches, so datasets of 10k customers x 500 warehouses x 5k items load
+ * in reasonable time. Ids are assigned here: customers 1..customers, warehouses 1..warehouses, items 1..items.
+ * Warehouse w stocks itemsPerWarehouse consecutive items starting at (w - 1) * itemsPerWarehouse, wrapping
+ * around, so every item is stocked somewhere once warehouses * itemsPerWarehouse >= items. Afterwards the
+ * id_generator rows are moved past the seeded ids.
+ */
+final class BenchmarkDataset {
+
+    static final double STOCK_PER_ITEM = 1_000_000_000.0;
+    private static final int BATCH_SIZE = 10_000;
+
+    private final int customers;
+    private final int warehouses;
+    private final int items;
+    private final int itemsPerWarehouse;
+
+    BenchmarkDataset(final int customers, final int warehouses, final int items, final int itemsPerWarehouse) {
+        if (itemsPerWarehouse > items) {
+            throw new IllegalArgumentException("itemsPerWarehouse can't be bigger than items");
+        }
+        this.customers = customers;
+        this.warehouses = warehouses;
+        this.items = items;
+        this.itemsPerWarehouse = itemsPerWarehouse;
+    }
+
+    static String itemName(final long itemId) {
+        return "Item " + itemId;
+    }
+
+    long stockedItemId(final long warehouseId, final int index) {
+        return ((warehouseId - 1) * itemsPerWarehouse + index) % items + 1;
+    }
+
+    /**
+     * @param distancesPerCustomer how many nearest warehouses of every customer get a distance row, 0 for none
+     */
+    void seed(final JdbcTemplate jdbcTemplate, final DistanceService distanceService, final int distancesPerCustomer) {
+        Random random = new Random(42);
+        double[] customerLatitudes = new double[customers];
+        double[] customerLongitudes = new double[customers];
+        List<Object[]> locations = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            customerLatitudes[i] = random.nextDouble() * 180 - 90;
+            customerLongitudes[i] = random.nextDouble() * 360 - 180;
+            locations.add(new Object[]{i + 1L, customerLatitudes[i], customerLongitudes[i]});
+        }
+        double[] warehouseLatitudes = new double[warehouses];
+        double[] warehouseLongitudes = new double[warehouses];
+        for (int i = 0; i < warehouses; i++) {
+            warehouseLatitudes[i] = random.nextDouble() * 180 - 90;
+            warehouseLongitudes[i] = random.nextDouble() * 360 - 180;
+            locations.add(new Object[]{customers + i + 1L, warehouseLatitudes[i], warehouseLongitudes[i]});
+        }
+        batchUpdate(jdbcTemplate, "insert into location (id, latitude, longitude) values (?, ?, ?)", locations);
+
+        List<Object[]> customerRows = new ArrayList<>();
+        for (long id = 1; id <= customers; id++) {
+            customerRows.add(new Object[]{id, "Customer " + id, id});
+        }
+        batchUpdate(jdbcTemplate, "insert into customer (id, name, location_id) values (?, ?, ?)", customerRows);
+
+        List<Object[]> warehouseRows = new ArrayList<>();
+        for (long id = 1; id <= warehouses; id++) {
+            warehouseRows.add(new Object[]{id, "Warehouse " + id, customers + id});
+        }
+        batchUpdate(jdbcTemplate, "insert into warehouse (id, name, location_id) values (?, ?, ?)", warehouseRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            itemRows.add(new Object[]{id, itemName(id)});
+        }
+        batchUpdate(jdbcTemplate, "insert into item (id, name) values (?, ?)", itemRows);
+
+        List<Object[]> stockRows = new ArrayList<>();
+        long stockId = 1;
+        for (long warehouseId = 1; warehouseId <= warehouses; warehouseId++) {
+            for (int i = 0; i < itemsPerWarehouse; i++) {
+                stockRows.add(new Object[]{stockId++, stockedItemId(warehouseId, i), warehouseId, STOCK_PER_ITEM});
+            }
+        }
+        batchUpdate(jdbcTemplate, "insert into warehouse_item (id, item_id, warehouse_id, amount) values (?, ?, ?, ?)",
+                stockRows);
+
+        if (distancesPerCustomer > 0) {
+            seedDistances(jdbcTemplate, distanceService, customerLatitudes, customerLongitudes,
+                    warehouseLatitudes, warehouseLongitudes, Math.min(distancesPerCustomer, warehouses));
+        }
+        advanceIdGenerators(jdbcTemplate);
+    }
+
+    private static void advanceIdGenerators(final JdbcTemplate jdbcTemplate) {
+        for (String table : new String[]{"location", "customer", "warehouse", "item", "warehouse_item", "distance"}) {
+            jdbcTemplate.update("update id_generator set next_val = next_val + (select coalesce(max(id), 0) from "
+                    + table + ") where sequence_name = ?", table);
+        }
+    }
+
+    private void seedDistances(final JdbcTemplate jdbcTemplate, final DistanceService distanceService,
+                               final double[] customerLatitudes, final double[] customerLongitudes,
+                               final double[] warehouseLatitudes, final double[] warehouseLongitudes,
+                               final int distancesPerCustomer) {
+        double[] distances = new double[warehouses];
+        List<Object[]> distanceRows = new ArrayList<>(BATCH_SIZE);
+        long distanceId = 1;
+        for (int customer = 0; customer < customers; customer++) {
+            distanceService.getDistancesByLatitudeAndLongitude(customerLatitudes[customer],
+                    customerLongitudes[customer], warehouseLatitudes, warehouseLongitudes, distances);
+            int[] nearestWarehouses = IntStream.range(0, warehouses).boxed()
+                    .sorted(Comparator.comparingDouble(warehouse -> distances[warehouse]))
+                    .limit(distancesPerCustomer)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int warehouse : nearestWarehouses) {
+                distanceRows.add(new Object[]{distanceId++, customer + 1L, warehouse + 1L, distances[warehouse]});
+            }
+            if (distanceRows.size() >= BATCH_SIZE) {
+                batchUpdate(jdbcTemplate, "insert into distance (id, customer_id, warehouse_id, distance_value)"
+                        + " values (?, ?, ?, ?)", distanceRows);
+                distanceRows.clear();
+            }
+        }
+        batchUpdate(jdbcTemplate, "insert into distance (id, customer_id, warehouse_id, distance_value)"
+                + " values (?, ?, ?, ?)", distanceRows);
+    }
+
+    private static void batchUpdate(final JdbcTemplate jdbcTemplate, final String sql, final List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportResultDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.service.CustomerImportService;
+import com.itechart.orderplanningproblem.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Onboards a block of customers per invocation, one create call per customer against the bulk import.
+ * In table mode every customer also gets a distance row per warehouse, e.g. -p warehouses=500.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CustomerImportBenchmark {
+
+    @Param("2000")
+    private int block;
+
+    private int createdBlocks;
+
+    @Benchmark
+    public List<CustomerDto> createOneByOne(final ApplicationState state) {
+        CustomerService customerService = state.getBean(CustomerService.class);
+        List<CustomerDto> created = new ArrayList<>(block);
+        for (CustomerDto customerDto : nextBlock("One by one")) {
+            created.add(customerService.create(customerDto));
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<CustomerImportResultDto> importBlock(final ApplicationState state) {
+        return state.getBean(CustomerImportService.class).importCustomers(nextBlock("Imported"));
+    }
+
+    private List<CustomerDto> nextBlock(final String prefix) {
+        createdBlocks++;
+        List<CustomerDto> customerDtos = new ArrayList<>(block);
+        for (int i = 0; i < block; i++) {
+            customerDtos.add(CustomerDto.builder()
+                    .name(prefix + " customer " + createdBlocks + "-" + i)
+                    .location(new LocationDto(40 + (i % 200) * 0.1, 10 + (i % 300) * 0.1))
+                    .build());
+        }
+        return customerDtos;
+    }
+
+}
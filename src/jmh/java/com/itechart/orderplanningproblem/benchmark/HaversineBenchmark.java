@@ -0,0 +1,92 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.service.DistanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One origin against N points: the original boxed single-pair haversine called per point, as the customer and
+ * warehouse fan-out used to do, versus the primitive batch method. The original is kept here as a private copy,
+ * since DistanceService's single-pair method now runs the same kernel as the batch one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HaversineBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int points;
+
+    private final DistanceService distanceService = new DistanceService(null, null);
+    private double originLatitude;
+    private double originLongitude;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] distances;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        originLatitude = random.nextDouble() * 180 - 90;
+        originLongitude = random.nextDouble() * 360 - 180;
+        latitudes = new double[points];
+        longitudes = new double[points];
+        distances = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = random.nextDouble() * 180 - 90;
+            longitudes[i] = random.nextDouble() * 360 - 180;
+        }
+    }
+
+    @Benchmark
+    public void boxedSinglePair(final Blackhole blackhole) {
+        for (int i = 0; i < points; i++) {
+            blackhole.consume(originalDistance(originLatitude, originLongitude, latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Benchmark
+    public double[] primitiveBatch() {
+        distanceService.getDistancesByLatitudeAndLongitude(originLatitude, originLongitude,
+                latitudes, longitudes, distances);
+        return distances;
+    }
+
+    /**
+     * DistanceService.getDistanceByLatitudeAndLongitude as it was before the primitive kernel.
+     */
+    private static Double originalDistance(final Double firstLatitude, final Double firstLongitude,
+                                           final Double secondLatitude, final Double secondLongitude) {
+        double radiusOfEarth = 6371;
+        double diffLat = degreesToRadians(secondLatitude - firstLatitude);
+        double diffLong = degreesToRadians(secondLongitude - firstLongitude);
+        double a =
+                Math.sin(diffLat/2) * Math.sin(diffLat/2) +
+                        Math.cos(degreesToRadians(firstLatitude)) * Math.cos(degreesToRadians(secondLatitude)) *
+                                Math.sin(diffLong/2) * Math.sin(diffLong/2)
+                ;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
+        return radiusOfEarth * c;
+    }
+
+    private static Double degreesToRadians(final Double degrees) {
+        return degrees * (Math.PI/180);
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Location;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import com.itechart.orderplanningproblem.mapper.CustomerMapper;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
+import com.itechart.orderplanningproblem.mapper.LocationMapper;
+import com.itechart.orderplanningproblem.mapper.OrderMapper;
+import com.itechart.orderplanningproblem.mapper.WarehouseItemMapper;
+import com.itechart.orderplanningproblem.mapper.WarehouseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of entities to DTOs the way readPage does, with ObjectMapper.convertValue configured like the
+ * application's mapper and with the explicit mappers. An order embeds its warehouse, so the warehouse stock size
+ * matters for orders too. Run with -prof gc to compare allocation per page (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+    @Param({"10", "100"})
+    private int warehouseItems;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final LocationMapper locationMapper = new LocationMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final CustomerMapper customerMapper = new CustomerMapper(locationMapper);
+    private final WarehouseMapper warehouseMapper = new WarehouseMapper(locationMapper,
+            new WarehouseItemMapper(itemMapper));
+    private final OrderMapper orderMapper = new OrderMapper(itemMapper, customerMapper, warehouseMapper);
+    private List<Customer> customers;
+    private List<Warehouse> warehouses;
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        customers = new ArrayList<>(pageSize);
+        warehouses = new ArrayList<>(pageSize);
+        orders = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            Customer customer = new Customer(id, "Customer " + id, new Location(id, 55.0055, 24.454732));
+            Warehouse warehouse = new Warehouse(id, "Warehouse " + id, new Location(id, 22.12345, 54.6688),
+                    new ArrayList<>(), true);
+            for (long itemId = 1; itemId <= warehouseItems; itemId++) {
+                warehouse.getItems().add(new WarehouseItem(itemId, 100.0,
+                        new Item(itemId, BenchmarkDataset.itemName(itemId)), warehouse));
+            }
+            customers.add(customer);
+            warehouses.add(warehouse);
+            orders.add(new Order(id, 1.0, 4432.19, warehouse.getItems().get(0).getItem(), customer, warehouse));
+        }
+    }
+
+    @Benchmark
+    public List<CustomerDto> customerPageWithObjectMapper() {
+        List<CustomerDto> page = new ArrayList<>(pageSize);
+        for (Customer customer : customers) {
+            page.add(objectMapper.convertValue(customer, CustomerDto.class));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<CustomerDto> customerPageWithMapper() {
+        List<CustomerDto> page = new ArrayList<>(pageSize);
+        for (Customer customer : customers) {
+            page.add(customerMapper.toDto(customer));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<WarehouseDto> warehousePageWithObjectMapper() {
+        List<WarehouseDto> page = new ArrayList<>(pageSize);
+        for (Warehouse warehouse : warehouses) {
+            page.add(objectMapper.convertValue(warehouse, WarehouseDto.class));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<WarehouseDto> warehousePageWithMapper() {
+        List<WarehouseDto> page = new ArrayList<>(pageSize);
+        for (Warehouse warehouse : warehouses) {
+            page.add(warehouseMapper.toDto(warehouse));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<OrderDto> orderPageWithObjectMapper() {
+        List<OrderDto> page = new ArrayList<>(pageSize);
+        for (Order order : orders) {
+            page.add(objectMapper.convertValue(order, OrderDto.class));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<OrderDto> orderPageWithMapper() {
+        List<OrderDto> page = new ArrayList<>(pageSize);
+        for (Order order : orders) {
+            page.add(orderMapper.toDto(order));
+        }
+        return page;
+    }
+
+}
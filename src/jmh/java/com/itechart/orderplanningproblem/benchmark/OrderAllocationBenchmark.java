@@ -0,0 +1,49 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places single-item orders for random customers and items through OrderService.create, i.e. validation,
+ * nearest-warehouse search, conditional stock decrement and the order insert.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderAllocationBenchmark {
+
+    @Benchmark
+    public OrderDto createOrder(final ApplicationState state) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ItemDto item = ItemDto.builder()
+                .name(BenchmarkDataset.itemName(random.nextInt(state.getItems()) + 1))
+                .build();
+        return state.getBean(OrderService.class)
+                .create(new CreateOrderDto(1.0, item, random.nextInt(state.getCustomers()) + 1L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OrderDto createOrderConcurrently(final ApplicationState state) throws Exception {
+        return createOrder(state);
+    }
+
+}
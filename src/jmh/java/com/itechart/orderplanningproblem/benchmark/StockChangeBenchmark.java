@@ -0,0 +1,55 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import com.itechart.orderplanningproblem.service.WarehouseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PUT and REMOVE of one unit of a stocked item in a random warehouse through
+ * WarehouseService.changeAmountOfWarehouseItem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StockChangeBenchmark {
+
+    @Benchmark
+    public WarehouseDto increaseAmount(final ApplicationState state) throws Exception {
+        return changeAmount(state, Operation.PUT);
+    }
+
+    @Benchmark
+    public WarehouseDto decreaseAmount(final ApplicationState state) throws Exception {
+        return changeAmount(state, Operation.REMOVE);
+    }
+
+    private WarehouseDto changeAmount(final ApplicationState state, final Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long warehouseId = random.nextInt(state.getWarehouses()) + 1L;
+        long itemId = state.getDataset().stockedItemId(warehouseId, random.nextInt(state.getItemsPerWarehouse()));
+        return state.getBean(WarehouseService.class).changeAmountOfWarehouseItem(WarehouseItemChangeAmountDto.builder()
+                .warehouseId(warehouseId)
+                .amount(1.0)
+                .item(ItemDto.builder().name(BenchmarkDataset.itemName(itemId)).build())
+                .operation(operation)
+                .build());
+    }
+
+}
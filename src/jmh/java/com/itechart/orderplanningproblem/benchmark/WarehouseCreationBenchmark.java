@@ -0,0 +1,44 @@
+package com.itechart.orderplanningproblem.benchmark;
+
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.service.WarehouseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates one warehouse per invocation, which in table mode writes a distance row for every existing customer.
+ * The test profile runs the distance fan-out inline, so its chunks are part of the measured time.
+ * Run with -p distanceMode=table -p customers=100000 for the fan-out at scale.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WarehouseCreationBenchmark {
+
+    private int createdWarehouses;
+
+    @Benchmark
+    public WarehouseDto createWarehouse(final ApplicationState state) throws Exception {
+        createdWarehouses++;
+        return state.getBean(WarehouseService.class).create(WarehouseDto.builder()
+                .name("Created warehouse " + createdWarehouses)
+                .location(new LocationDto(53.9, 27.56))
+                .items(new ArrayList<>())
+                .build());
+    }
+
+}
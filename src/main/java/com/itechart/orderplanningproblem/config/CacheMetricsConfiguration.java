@@ -0,0 +1,49 @@
+package com.itechart.orderplanningproblem.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * Hit ratios of the second-level cache regions and of the query cache, next to the hit and miss counters
+ * Spring Boot publishes as hibernate.second.level.cache.requests and hibernate.query.cache.requests.
+ */
+@Configuration
+public class CacheMetricsConfiguration {
+
+    static final List<String> ENTITY_REGIONS = List.of("item", "customer", "location");
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(final EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : ENTITY_REGIONS) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                        stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                        .description("Share of second-level cache lookups served from the cache")
+                        .tag("region", region)
+                        .register(registry);
+            }
+            Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                    stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                    .description("Share of cacheable query executions served from the query cache")
+                    .register(registry);
+        };
+    }
+
+    private static double hitRatio(final CacheRegionStatistics regionStatistics) {
+        return ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+    }
+
+    private static double ratio(final long hits, final long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.itechart.orderplanningproblem.controller;
+
+import com.itechart.orderplanningproblem.dto.CartDto;
+import com.itechart.orderplanningproblem.dto.CreateCartDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.CartService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/carts")
+@Validated
+public class CartController {
+
+    private final CartService cartService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CartDto createCart(@Valid @RequestBody CreateCartDto createCartDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return cartService.create(createCartDto);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public CartDto getById(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws ResourceNotFoundException {
+        return cartService.readById(id);
+    }
+
+}
@@ -1,8 +1,11 @@
 package com.itechart.orderplanningproblem.controller;
 
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportResultDto;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.CustomerImportService;
 import com.itechart.orderplanningproblem.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -23,9 +26,12 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -34,6 +40,7 @@ import javax.validation.constraints.Size;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -43,6 +50,14 @@ public class CustomerController {
         return customerService.create(customerDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CustomerImportResultDto> createCustomers(
+            @NotEmpty(message = "Customers are mandatory!")
+            @RequestBody List<CustomerDto> customerDtos) {
+        return customerImportService.importCustomers(customerDtos);
+    }
+
     @PutMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public CustomerDto updateCustomerName(
@@ -62,6 +77,16 @@ public class CustomerController {
         return customerService.readPage(pageable);
     }
 
+    @GetMapping("/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<CustomerDto> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @Min(value = 1, message = "size must be more or equals 1")
+            @Max(value = 1000, message = "size must be less or equals 1000")
+            @RequestParam(defaultValue = "20") Integer size) {
+        return customerService.readCursorPage(cursor, size);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public CustomerDto getById(@PathVariable @Min(value = 1,
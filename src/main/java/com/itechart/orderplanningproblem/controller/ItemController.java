@@ -1,5 +1,6 @@
 package com.itechart.orderplanningproblem.controller;
 
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.ItemDto;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
@@ -61,6 +63,16 @@ public class ItemController {
         return itemService.readPage(pageable);
     }
 
+    @GetMapping("/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<ItemDto> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @Min(value = 1, message = "size must be more or equals 1")
+            @Max(value = 1000, message = "size must be less or equals 1000")
+            @RequestParam(defaultValue = "20") Integer size) {
+        return itemService.readCursorPage(cursor, size);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public ItemDto getById(
@@ -1,15 +1,20 @@
 package com.itechart.orderplanningproblem.controller;
 
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.OrderDto;
 import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.OrderTicketDto;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.ExportService;
+import com.itechart.orderplanningproblem.service.OrderIntakeService;
 import com.itechart.orderplanningproblem.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,11 +23,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,12 +45,51 @@ import javax.validation.constraints.Min;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final ExportService exportService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public OrderDto createOrder(@Valid @RequestBody CreateOrderDto createOrderDto)
+    public OrderDto createOrder(@Valid @RequestBody CreateOrderDto createOrderDto,
+                                @RequestParam(required = false) String strategy)
             throws UnprocessableEntityException, ResourceNotFoundException {
-        return orderService.create(createOrderDto);
+        return orderService.create(createOrderDto, strategy);
+    }
+
+    @PostMapping("/split")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<OrderDto> createSplitOrder(@Valid @RequestBody CreateOrderDto createOrderDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return orderService.createSplit(createOrderDto);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<OrderDto> createOrders(
+            @NotEmpty(message = "Orders are mandatory!")
+            @Size(max = 1000, message = "No more than 1000 orders can be created at once.")
+            @RequestBody List<@Valid CreateOrderDto> createOrderDtos)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return orderService.createBatch(createOrderDtos);
+    }
+
+    @PostMapping("/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public OrderTicketDto createOrderAsync(@Valid @RequestBody CreateOrderDto createOrderDto) {
+        return orderIntakeService.submit(createOrderDto);
+    }
+
+    @GetMapping("/async/{ticketId}")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<OrderTicketDto> getOrderTicket(
+            @PathVariable String ticketId,
+            @Min(value = 0, message = "waitMs must be more or equals 0")
+            @Max(value = 30000, message = "waitMs must be less or equals 30000")
+            @RequestParam(defaultValue = "0") Long waitMs) throws ResourceNotFoundException {
+        if (waitMs == 0) {
+            return CompletableFuture.completedFuture(orderIntakeService.readTicket(ticketId));
+        }
+        return orderIntakeService.awaitTicket(ticketId, Duration.ofMillis(waitMs));
     }
 
     @GetMapping
@@ -46,6 +99,25 @@ public class OrderController {
         return orderService.readPage(pageable);
     }
 
+    @GetMapping("/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<OrderDto> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @Min(value = 1, message = "size must be more or equals 1")
+            @Max(value = 1000, message = "size must be less or equals 1000")
+            @RequestParam(defaultValue = "20") Integer size) {
+        return orderService.readCursorPage(cursor, size);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportOrders(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response)
+            throws IOException {
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        exportService.exportOrders(response.getOutputStream(), gzip);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public OrderDto getById(
@@ -54,6 +126,23 @@ public class OrderController {
         return orderService.readById(id);
     }
 
+    @PostMapping("/{id}/cancel")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void cancel(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        orderService.cancel(id);
+    }
+
+    @PostMapping("/cancel")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void cancelBatch(
+            @NotEmpty(message = "Order ids are mandatory!")
+            @RequestBody List<@Min(value = 1, message = "id must be more or equals 1") Long> ids)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        orderService.cancelBatch(ids);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteById(
@@ -0,0 +1,62 @@
+package com.itechart.orderplanningproblem.controller;
+
+import com.itechart.orderplanningproblem.dto.CreateReservationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.ReservationDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/reservations")
+@Validated
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationDto createReservation(@Valid @RequestBody CreateReservationDto createReservationDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return reservationService.reserve(createReservationDto);
+    }
+
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public ReservationDto getById(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws ResourceNotFoundException {
+        return reservationService.readById(id);
+    }
+
+    @PostMapping("/{id}/confirm")
+    @ResponseStatus(HttpStatus.CREATED)
+    public OrderDto confirm(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        return reservationService.confirm(id);
+    }
+
+    @PostMapping("/{id}/release")
+    @ResponseStatus(HttpStatus.OK)
+    public ReservationDto release(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        return reservationService.release(id);
+    }
+
+}
@@ -1,18 +1,28 @@
 package com.itechart.orderplanningproblem.controller;
 
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
+import com.itechart.orderplanningproblem.dto.DistanceJobDto;
+import com.itechart.orderplanningproblem.dto.InventoryImportFormat;
+import com.itechart.orderplanningproblem.dto.InventoryImportReportDto;
 import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentResultDto;
 import com.itechart.orderplanningproblem.dto.WarehouseDto;
 import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
 import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
 import com.itechart.orderplanningproblem.error.exception.ConflictWithCurrentWarehouseStateException;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.DistanceFanOutService;
+import com.itechart.orderplanningproblem.service.ExportService;
+import com.itechart.orderplanningproblem.service.InventoryImportService;
+import com.itechart.orderplanningproblem.service.StockAdjustmentService;
 import com.itechart.orderplanningproblem.service.WarehouseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,10 +36,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/warehouses")
@@ -38,6 +54,10 @@ import javax.validation.constraints.Size;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final StockAdjustmentService stockAdjustmentService;
+    private final InventoryImportService inventoryImportService;
+    private final ExportService exportService;
+    private final DistanceFanOutService distanceFanOutService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -67,6 +87,16 @@ public class WarehouseController {
         return warehouseService.readPage(pageable);
     }
 
+    @GetMapping("/cursor")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDto<WarehouseDto> getCursorPage(
+            @RequestParam(required = false) String cursor,
+            @Min(value = 1, message = "size must be more or equals 1")
+            @Max(value = 1000, message = "size must be less or equals 1000")
+            @RequestParam(defaultValue = "20") Integer size) {
+        return warehouseService.readCursorPage(cursor, size);
+    }
+
     @GetMapping("/{id}")
     public WarehouseDto getById(
             @Min(value = 1, message = "id must be more or equals 1")
@@ -74,6 +104,21 @@ public class WarehouseController {
         return warehouseService.readById(id);
     }
 
+    @GetMapping("/{id}/distance-job")
+    public DistanceJobDto getDistanceJob(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws ResourceNotFoundException {
+        return distanceFanOutService.readJob(id);
+    }
+
+    @PostMapping("/{id}/distance-job/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DistanceJobDto resumeDistanceJob(
+            @Min(value = 1, message = "id must be more or equals 1")
+            @PathVariable Long id) throws ResourceNotFoundException {
+        return distanceFanOutService.resume(id);
+    }
+
     @PutMapping("/{warehouseId}/item")
     public WarehouseDto putItemToWarehouse(
             @Valid @RequestBody WarehouseItemDto warehouseItemDto,
@@ -85,6 +130,34 @@ public class WarehouseController {
                 warehouseItemDto.getAmount(), warehouseItemDto.getItem(), operation));
     }
 
+    @PutMapping("/items")
+    public List<StockAdjustmentResultDto> adjustStock(
+            @NotEmpty(message = "Stock changes are mandatory!")
+            @Size(max = 10000, message = "No more than 10000 stock changes can be applied at once.")
+            @RequestBody List<@Valid WarehouseItemChangeAmountDto> warehouseItemChangeAmountDtos)
+            throws UnprocessableEntityException {
+        return stockAdjustmentService.adjust(warehouseItemChangeAmountDtos);
+    }
+
+    @PostMapping(value = "/items/import", consumes = "text/csv")
+    public InventoryImportReportDto importInventoryCsv(InputStream body) throws IOException {
+        return inventoryImportService.importInventory(body, InventoryImportFormat.CSV);
+    }
+
+    @PostMapping(value = "/items/import", consumes = "application/x-ndjson")
+    public InventoryImportReportDto importInventoryNdjson(InputStream body) throws IOException {
+        return inventoryImportService.importInventory(body, InventoryImportFormat.NDJSON);
+    }
+
+    @GetMapping(value = "/items/export", produces = "application/x-ndjson")
+    public void exportWarehouseItems(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response)
+            throws IOException {
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        exportService.exportWarehouseItems(response.getOutputStream(), gzip);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteById(
@@ -0,0 +1,22 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CartDto {
+
+    private Long id;
+    private Long customerId;
+    private Instant createdAt;
+    private List<OrderDto> lines;
+
+}
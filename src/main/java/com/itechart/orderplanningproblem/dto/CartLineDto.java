@@ -0,0 +1,25 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CartLineDto {
+
+    @NotNull(message = "Amount is mandatory")
+    @DecimalMin(value = "0.0", message = "Amount can't be less than 0!")
+    private Double amount;
+    @Valid
+    @NotNull(message = "Item is mandatory!")
+    private ItemDto item;
+
+}
@@ -0,0 +1,28 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreateCartDto {
+
+    @NotNull(message = "Customer id is mandatory!")
+    @Min(value = 1, message = "Id can't be less than 1!")
+    private Long customerId;
+    @NotEmpty(message = "Lines are mandatory!")
+    @Size(max = 1000, message = "Cart can't have more than 1000 lines!")
+    private List<@Valid CartLineDto> lines;
+
+}
@@ -0,0 +1,32 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CreateReservationDto {
+
+    @NotNull(message = "Amount is mandatory")
+    @DecimalMin(value = "0.0", message = "Amount can't be less than 0!")
+    private Double amount;
+    @Valid
+    private ItemDto item;
+    @NotNull(message = "Customer id is mandatory!")
+    @Min(value = 1, message = "Id can't be less than 1!")
+    private Long customerId;
+    @Min(value = 1, message = "TTL can't be less than 1 second!")
+    @Max(value = 86400, message = "TTL can't be more than 86400 seconds!")
+    private Long ttlSeconds;
+
+}
@@ -0,0 +1,18 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> content = new ArrayList<>();
+    private String nextCursor;
+
+}
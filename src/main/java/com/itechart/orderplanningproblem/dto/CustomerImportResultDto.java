@@ -0,0 +1,20 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerImportResultDto {
+
+    private int line;
+    private Long id;
+    private String name;
+    private CustomerImportStatus status;
+    private String message;
+
+}
@@ -0,0 +1,25 @@
+package com.itechart.orderplanningproblem.dto;
+
+import com.itechart.orderplanningproblem.entity.DistanceJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DistanceJobDto {
+
+    private Long warehouseId;
+    private DistanceJobStatus status;
+    private Long processedCustomers;
+    private Long totalCustomers;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private String message;
+
+}
@@ -0,0 +1,23 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryImportChunkDto {
+
+    private int chunk;
+    private long firstLine;
+    private long lastLine;
+    private boolean committed;
+    private int applied;
+    private int rejected;
+    private long durationMs;
+    private String message;
+
+}
@@ -0,0 +1,27 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryImportReportDto {
+
+    private long lines;
+    private long applied;
+    private long rejected;
+    private long failed;
+    private long durationMs;
+    @Builder.Default
+    private List<InventoryImportChunkDto> chunks = new ArrayList<>();
+    @Builder.Default
+    private List<StockAdjustmentResultDto> errors = new ArrayList<>();
+
+}
@@ -0,0 +1,23 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderTicketDto {
+
+    private String ticketId;
+    private OrderTicketStatus status;
+    @Builder.Default
+    private List<OrderDto> orders = new ArrayList<>();
+    private String message;
+
+}
@@ -0,0 +1,7 @@
+package com.itechart.orderplanningproblem.dto;
+
+public enum OrderTicketStatus {
+
+    ACCEPTED, COMPLETED, FAILED
+
+}
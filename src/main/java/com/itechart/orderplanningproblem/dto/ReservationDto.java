@@ -0,0 +1,27 @@
+package com.itechart.orderplanningproblem.dto;
+
+import com.itechart.orderplanningproblem.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationDto {
+
+    private Long id;
+    private ReservationStatus status;
+    private Double amount;
+    private Double distance;
+    private ItemDto item;
+    private Long customerId;
+    private Long warehouseId;
+    private Instant expiresAt;
+    private Long orderId;
+
+}
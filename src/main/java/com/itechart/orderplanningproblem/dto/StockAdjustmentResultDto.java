@@ -0,0 +1,21 @@
+package com.itechart.orderplanningproblem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockAdjustmentResultDto {
+
+    private long line;
+    private Long warehouseId;
+    private String itemName;
+    private StockAdjustmentStatus status;
+    private Double amount;
+    private String message;
+
+}
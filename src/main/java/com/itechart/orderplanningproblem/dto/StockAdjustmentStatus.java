@@ -0,0 +1,7 @@
+package com.itechart.orderplanningproblem.dto;
+
+public enum StockAdjustmentStatus {
+
+    APPLIED, NOT_FOUND, CONFLICT, INVALID
+
+}
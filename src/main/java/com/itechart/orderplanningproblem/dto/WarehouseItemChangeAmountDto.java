@@ -18,13 +18,16 @@ import javax.validation.constraints.NotNull;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class WarehouseItemChangeAmountDto {
 
+    @NotNull(message = "Warehouse id is mandatory!")
     @Min(value = 1, message = "Id can't be less than 1!")
     private Long warehouseId;
     @NotNull(message = "Amount is mandatory")
     @DecimalMin(value = "0.0", message = "Amount can't be less than 0!")
     private Double amount;
     @Valid
+    @NotNull(message = "Item is mandatory!")
     private ItemDto item;
+    @NotNull(message = "Operation is mandatory!")
     private Operation operation;
 
 }
@@ -12,6 +12,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.TableGenerator;
 
 @Entity
 @Data
@@ -21,7 +22,9 @@ import javax.persistence.ManyToOne;
 public class Distance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "distance_id")
+    @TableGenerator(name = "distance_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "distance", allocationSize = 1000)
     private Long id;
     @Column(nullable = false)
     private Double distanceValue;
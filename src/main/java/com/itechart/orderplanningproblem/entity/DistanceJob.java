@@ -0,0 +1,46 @@
+package com.itechart.orderplanningproblem.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import java.time.Instant;
+
+/**
+ * Progress of the distance fan-out of a new warehouse. Customers are processed in id order and
+ * lastCustomerId is committed together with each chunk of distances, so the job resumes after it.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DistanceJob {
+
+    public static final int MESSAGE_LENGTH = 255;
+
+    @Id
+    private Long warehouseId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DistanceJobStatus status;
+    @Column(nullable = false)
+    private Long lastCustomerId;
+    @Column(nullable = false)
+    private Long processedCustomers;
+    @Column(nullable = false)
+    private Long totalCustomers;
+    @Column(nullable = false)
+    private Instant startedAt;
+    @Column(nullable = false)
+    private Instant updatedAt;
+    @Column(length = MESSAGE_LENGTH)
+    private String message;
+
+}
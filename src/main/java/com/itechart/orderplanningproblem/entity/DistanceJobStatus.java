@@ -0,0 +1,7 @@
+package com.itechart.orderplanningproblem.entity;
+
+public enum DistanceJobStatus {
+
+    RUNNING, COMPLETED, FAILED
+
+}
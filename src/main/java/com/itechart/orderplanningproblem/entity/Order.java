@@ -1,18 +1,23 @@
 package com.itechart.orderplanningproblem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
 
 @Entity
 @Data
@@ -23,7 +28,9 @@ import javax.persistence.Table;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_order_id")
+    @TableGenerator(name = "item_order_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "item_order", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private Double amount;
@@ -38,4 +45,18 @@ public class Order {
     @ManyToOne
     @JoinColumn(name = "warehouse_id")
     private Warehouse warehouse;
+    /**
+     * Set when the order is a line of a multi-item order.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cart_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Cart cart;
+
+    public Order(final Long id, final Double amount, final Double distance, final Item item, final Customer customer,
+                 final Warehouse warehouse) {
+        this(id, amount, distance, item, customer, warehouse, null);
+    }
 }
@@ -0,0 +1,7 @@
+package com.itechart.orderplanningproblem.entity;
+
+public enum ReservationStatus {
+
+    ACTIVE, CONFIRMED, RELEASED, EXPIRED
+
+}
@@ -15,6 +15,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
+import javax.persistence.TableGenerator;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,7 +27,9 @@ import java.util.List;
 public class Warehouse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "warehouse_id")
+    @TableGenerator(name = "warehouse_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "warehouse", allocationSize = 50)
     private Long id;
     @Column(nullable = false, unique = true)
     private String name;
@@ -35,5 +38,11 @@ public class Warehouse {
     private Location location;
     @OneToMany(mappedBy = "warehouse", cascade = {CascadeType.MERGE, CascadeType.PERSIST}, orphanRemoval = true)
     private List<WarehouseItem> items = new ArrayList<>();
+    /**
+     * False while the distance fan-out to existing customers is running, the warehouse isn't offered
+     * for allocation until then.
+     */
+    @Column(nullable = false)
+    private boolean distancesReady;
 
 }
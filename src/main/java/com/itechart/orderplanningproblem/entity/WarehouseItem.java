@@ -15,6 +15,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.TableGenerator;
 
 @Entity
 @Data
@@ -24,7 +25,9 @@ import javax.persistence.ManyToOne;
 public class WarehouseItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "warehouse_item_id")
+    @TableGenerator(name = "warehouse_item_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "warehouse_item", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private Double amount;
@@ -3,6 +3,7 @@ package com.itechart.orderplanningproblem.error;
 import com.itechart.orderplanningproblem.dto.ExceptionDto;
 import com.itechart.orderplanningproblem.error.exception.ConflictWithCurrentWarehouseStateException;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.ServiceUnavailableException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -29,6 +30,7 @@ import java.util.stream.Collectors;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 @ControllerAdvice
@@ -147,6 +149,11 @@ public class AdviceController extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(buildException(UNPROCESSABLE_ENTITY.value(), e.getMessage()), UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler({ServiceUnavailableException.class})
+    public ResponseEntity<ExceptionDto> handleServiceUnavailableException(final ServiceUnavailableException e) {
+        return new ResponseEntity<>(buildException(SERVICE_UNAVAILABLE.value(), e.getMessage()), SERVICE_UNAVAILABLE);
+    }
+
     private ExceptionDto buildException(final int errorCode, final String message) {
         return new ExceptionDto(errorCode, message, Timestamp.valueOf(LocalDateTime.now()).toString());
     }
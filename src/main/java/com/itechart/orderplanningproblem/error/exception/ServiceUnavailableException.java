@@ -0,0 +1,9 @@
+package com.itechart.orderplanningproblem.error.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.CartDto;
+import com.itechart.orderplanningproblem.entity.Cart;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class CartMapper {
+
+    private final OrderMapper orderMapper;
+
+    public CartDto toDto(final Cart cart) {
+        if (cart == null) {
+            return null;
+        }
+        return new CartDto(cart.getId(), cart.getCustomer().getId(), cart.getCreatedAt(), cart.getLines().stream()
+                .map(orderMapper::toDto)
+                .collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.entity.Customer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerMapper {
+
+    private final LocationMapper locationMapper;
+
+    public CustomerDto toDto(final Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        return new CustomerDto(customer.getId(), customer.getName(), locationMapper.toDto(customer.getLocation()));
+    }
+
+    public Customer toEntity(final CustomerDto customerDto) {
+        if (customerDto == null) {
+            return null;
+        }
+        return new Customer(customerDto.getId(), customerDto.getName(),
+                locationMapper.toEntity(customerDto.getLocation()));
+    }
+
+}
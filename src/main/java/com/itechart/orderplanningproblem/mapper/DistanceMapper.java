@@ -0,0 +1,23 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.DistanceDto;
+import com.itechart.orderplanningproblem.entity.Distance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DistanceMapper {
+
+    private final CustomerMapper customerMapper;
+    private final WarehouseMapper warehouseMapper;
+
+    public DistanceDto toDto(final Distance distance) {
+        if (distance == null) {
+            return null;
+        }
+        return new DistanceDto(distance.getId(), distance.getDistanceValue(),
+                warehouseMapper.toDto(distance.getWarehouse()), customerMapper.toDto(distance.getCustomer()));
+    }
+
+}
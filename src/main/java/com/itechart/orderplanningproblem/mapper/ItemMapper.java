@@ -0,0 +1,24 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.entity.Item;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ItemMapper {
+
+    public ItemDto toDto(final Item item) {
+        if (item == null) {
+            return null;
+        }
+        return new ItemDto(item.getId(), item.getName());
+    }
+
+    public Item toEntity(final ItemDto itemDto) {
+        if (itemDto == null) {
+            return null;
+        }
+        return new Item(itemDto.getId(), itemDto.getName());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.entity.Location;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LocationMapper {
+
+    public LocationDto toDto(final Location location) {
+        if (location == null) {
+            return null;
+        }
+        return new LocationDto(location.getLatitude(), location.getLongitude());
+    }
+
+    public Location toEntity(final LocationDto locationDto) {
+        if (locationDto == null) {
+            return null;
+        }
+        return new Location(null, locationDto.getLatitude(), locationDto.getLongitude());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OrderMapper {
+
+    private final ItemMapper itemMapper;
+    private final CustomerMapper customerMapper;
+    private final WarehouseMapper warehouseMapper;
+
+    public OrderDto toDto(final Order order) {
+        if (order == null) {
+            return null;
+        }
+        return new OrderDto(order.getId(), order.getAmount(), order.getDistance(), itemMapper.toDto(order.getItem()),
+                customerMapper.toDto(order.getCustomer()), warehouseMapper.toDto(order.getWarehouse()));
+    }
+
+}
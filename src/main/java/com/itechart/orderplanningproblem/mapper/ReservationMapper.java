@@ -0,0 +1,24 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.ReservationDto;
+import com.itechart.orderplanningproblem.entity.Reservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ReservationMapper {
+
+    private final ItemMapper itemMapper;
+
+    public ReservationDto toDto(final Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+        return new ReservationDto(reservation.getId(), reservation.getStatus(), reservation.getAmount(),
+                reservation.getDistance(), itemMapper.toDto(reservation.getItem()),
+                reservation.getCustomer().getId(), reservation.getWarehouse().getId(), reservation.getExpiresAt(),
+                reservation.getOrder() == null ? null : reservation.getOrder().getId());
+    }
+
+}
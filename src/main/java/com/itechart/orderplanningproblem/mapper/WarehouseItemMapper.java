@@ -0,0 +1,33 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * The owning warehouse is not part of the DTO; it is set by the warehouse the item is added to.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarehouseItemMapper {
+
+    private final ItemMapper itemMapper;
+
+    public WarehouseItemDto toDto(final WarehouseItem warehouseItem) {
+        if (warehouseItem == null) {
+            return null;
+        }
+        return new WarehouseItemDto(warehouseItem.getId(), warehouseItem.getAmount(),
+                itemMapper.toDto(warehouseItem.getItem()));
+    }
+
+    public WarehouseItem toEntity(final WarehouseItemDto warehouseItemDto) {
+        if (warehouseItemDto == null) {
+            return null;
+        }
+        return new WarehouseItem(warehouseItemDto.getId(), warehouseItemDto.getAmount(),
+                itemMapper.toEntity(warehouseItemDto.getItem()), null);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class WarehouseMapper {
+
+    private final LocationMapper locationMapper;
+    private final WarehouseItemMapper warehouseItemMapper;
+
+    public WarehouseDto toDto(final Warehouse warehouse) {
+        if (warehouse == null) {
+            return null;
+        }
+        List<WarehouseItemDto> items = null;
+        if (warehouse.getItems() != null) {
+            items = new ArrayList<>(warehouse.getItems().size());
+            for (WarehouseItem warehouseItem : warehouse.getItems()) {
+                items.add(warehouseItemMapper.toDto(warehouseItem));
+            }
+        }
+        return new WarehouseDto(warehouse.getId(), warehouse.getName(),
+                locationMapper.toDto(warehouse.getLocation()), items);
+    }
+
+    public Warehouse toEntity(final WarehouseDto warehouseDto) {
+        if (warehouseDto == null) {
+            return null;
+        }
+        List<WarehouseItem> items = null;
+        if (warehouseDto.getItems() != null) {
+            items = new ArrayList<>(warehouseDto.getItems().size());
+            for (WarehouseItemDto warehouseItemDto : warehouseDto.getItems()) {
+                items.add(warehouseItemMapper.toEntity(warehouseItemDto));
+            }
+        }
+        return new Warehouse(warehouseDto.getId(), warehouseDto.getName(),
+                locationMapper.toEntity(warehouseDto.getLocation()), items, true);
+    }
+
+}
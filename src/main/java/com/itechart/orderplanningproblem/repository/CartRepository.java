@@ -0,0 +1,16 @@
+package com.itechart.orderplanningproblem.repository;
+
+import com.itechart.orderplanningproblem.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CartRepository extends JpaRepository<Cart, Long> {
+
+    @EntityGraph(attributePaths = "lines")
+    Optional<Cart> findWithLinesById(final Long id);
+
+}
@@ -1,14 +1,70 @@
 package com.itechart.orderplanningproblem.repository;
 
 import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.repository.projection.CustomerLocation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "location")
+    List<Customer> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "location")
+    List<Customer> findAllById(final Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = "location")
+    Page<Customer> findAll(final Pageable pageable);
+
+    @EntityGraph(attributePaths = "location")
+    List<Customer> findByIdLessThanOrderByIdDesc(final Long id, final Pageable pageable);
+
     Optional<Customer> readByName(final String name);
 
+    @Query("select c.name from Customer c where c.name in :names")
+    Set<String> findNamesByNameIn(@Param("names") final Collection<String> names);
+
+    @Query("select new com.itechart.orderplanningproblem.repository.projection.CustomerLocation(" +
+            "c.id, c.location.latitude, c.location.longitude) from Customer c")
+    List<CustomerLocation> findAllLocations();
+
+    @Query("select new com.itechart.orderplanningproblem.repository.projection.CustomerLocation(" +
+            "c.id, c.location.latitude, c.location.longitude) from Customer c where c.id in :ids")
+    List<CustomerLocation> findLocationsByIdIn(@Param("ids") final Collection<Long> ids);
+
+    /**
+     * Write-locks customers in id order, so that writers of the nearest warehouse distances of the same customer
+     * take turns.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id from Customer c where c.id in :ids order by c.id")
+    List<Long> lockByIdIn(@Param("ids") final Collection<Long> ids);
+
+    /**
+     * Next customers in id order that have no distance to the warehouse yet.
+     */
+    @Query("select new com.itechart.orderplanningproblem.repository.projection.CustomerLocation(" +
+            "c.id, c.location.latitude, c.location.longitude) from Customer c where c.id > :afterId" +
+            " and not exists (select d.id from Distance d where d.customer.id = c.id and d.warehouse.id = :warehouseId)" +
+            " order by c.id")
+    List<CustomerLocation> findLocationsWithoutDistanceTo(@Param("warehouseId") final Long warehouseId,
+                                                          @Param("afterId") final Long afterId,
+                                                          final Pageable pageable);
+
 }
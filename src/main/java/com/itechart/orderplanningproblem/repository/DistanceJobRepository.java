@@ -0,0 +1,27 @@
+package com.itechart.orderplanningproblem.repository;
+
+import com.itechart.orderplanningproblem.entity.DistanceJob;
+import com.itechart.orderplanningproblem.entity.DistanceJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DistanceJobRepository extends JpaRepository<DistanceJob, Long> {
+
+    /**
+     * Locks the job for one chunk, so a job resumed on two nodes at once processes every chunk only once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from DistanceJob j where j.warehouseId = :warehouseId")
+    Optional<DistanceJob> findForUpdate(@Param("warehouseId") final Long warehouseId);
+
+    List<DistanceJob> findByStatusNot(final DistanceJobStatus status);
+
+}
@@ -1,14 +1,57 @@
 package com.itechart.orderplanningproblem.repository;
 
 import com.itechart.orderplanningproblem.entity.Distance;
+import com.itechart.orderplanningproblem.repository.projection.CustomerDistance;
+import com.itechart.orderplanningproblem.repository.projection.CustomerWarehouseDistance;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DistanceRepository extends JpaRepository<Distance, Long> {
 
-    Distance findDistanceByCustomerIdAndWarehouseId(final Long customerId, final Long warehouseId);
+    @Query("select d.warehouse.id as warehouseId, d.distanceValue as distanceValue from Distance d" +
+            " where d.customer.id = :customerId and d.warehouse.distancesReady = true order by d.distanceValue asc")
+    List<WarehouseDistance> findWarehouseDistancesForCustomer(@Param("customerId") final Long customerId);
+
+    /**
+     * Nearest warehouses first that hold at least the given amount of the item. Walks the
+     * (customer_id, distance_value) index and probes (item_id, warehouse_id, amount) for every row,
+     * so a page of one is a single round trip.
+     */
+    @Query("select d.warehouse.id as warehouseId, d.distanceValue as distanceValue from Distance d" +
+            " join WarehouseItem wi on wi.warehouse.id = d.warehouse.id" +
+            " where d.customer.id = :customerId and wi.item.id = :itemId and wi.amount >= :amount" +
+            " and d.warehouse.distancesReady = true" +
+            " order by d.distanceValue asc")
+    List<WarehouseDistance> findNearestStockedWarehouses(@Param("customerId") final Long customerId,
+                                                         @Param("itemId") final Long itemId,
+                                                         @Param("amount") final Double amount,
+                                                         final Pageable pageable);
+
+    @Query("select d.customer.id as customerId, d.warehouse.id as warehouseId, d.distanceValue as distanceValue" +
+            " from Distance d where d.customer.id in :customerIds and d.warehouse.id in :warehouseIds" +
+            " and d.warehouse.distancesReady = true")
+    List<CustomerWarehouseDistance> findDistances(@Param("customerIds") final Collection<Long> customerIds,
+                                                  @Param("warehouseIds") final Collection<Long> warehouseIds);
+
+    @Query("select new com.itechart.orderplanningproblem.repository.projection.CustomerDistance(" +
+            "d.id, d.customer.id, d.warehouse.id, d.distanceValue) from Distance d where d.customer.id in :customerIds")
+    List<CustomerDistance> findByCustomerIds(@Param("customerIds") final Collection<Long> customerIds);
+
+    @Query("select d.customer.id from Distance d where d.warehouse.id = :warehouseId order by d.customer.id")
+    List<Long> findCustomerIdsByWarehouseId(@Param("warehouseId") final Long warehouseId);
+
+    @Modifying
+    @Query("delete from Distance d where d.id in :ids")
+    int deleteByIdIn(@Param("ids") final Collection<Long> ids);
 
     @Modifying
     void deleteByWarehouseId(Long warehouseId);
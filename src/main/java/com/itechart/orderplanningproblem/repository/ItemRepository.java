@@ -1,14 +1,24 @@
 package com.itechart.orderplanningproblem.repository;
 
 import com.itechart.orderplanningproblem.entity.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    List<Item> findByIdLessThanOrderByIdDesc(final Long id, final Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Item> readByName(final String name);
 
+    List<Item> findByNameIn(final Collection<String> names);
+
 }
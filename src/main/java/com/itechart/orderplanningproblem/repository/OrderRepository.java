@@ -1,9 +1,46 @@
 package com.itechart.orderplanningproblem.repository;
 
 import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseItemStock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "customer.location", "warehouse.location", "warehouse.items.item"})
+    Optional<Order> findById(final Long id);
+
+    /**
+     * Warehouse items aren't fetched here, because a collection fetch can't be paged in the database.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"item", "customer.location", "warehouse.location"})
+    Page<Order> findAll(final Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "customer.location", "warehouse.location"})
+    List<Order> findByIdLessThanOrderByIdDesc(final Long id, final Pageable pageable);
+
+    /**
+     * Amount of every order with the item and the warehouse it was taken from.
+     */
+    @Query("select o.item.id as itemId, o.warehouse.id as warehouseId, o.amount as amount from Order o" +
+            " where o.id in :ids")
+    List<WarehouseItemStock> findStockByIdIn(@Param("ids") final Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIdIn(@Param("ids") final Collection<Long> ids);
+
 }
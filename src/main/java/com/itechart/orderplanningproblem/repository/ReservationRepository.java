@@ -0,0 +1,60 @@
+package com.itechart.orderplanningproblem.repository;
+
+import com.itechart.orderplanningproblem.entity.Reservation;
+import com.itechart.orderplanningproblem.entity.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findForUpdate(@Param("id") final Long id);
+
+    /**
+     * Oldest due reservations first, read and locked through the (status, expires_at) index.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.status = :status and r.expiresAt <= :now order by r.expiresAt")
+    List<Reservation> findDueForUpdate(@Param("status") final ReservationStatus status,
+                                       @Param("now") final Instant now, final Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Reservation> findByCustomerIdAndStatus(final Long customerId, final ReservationStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Reservation> findByItemIdAndStatus(final Long itemId, final ReservationStatus status);
+
+    /**
+     * Deletes the reservations of a warehouse that have no order, leaving those of confirmed orders to block
+     * the deletion of the warehouse as the orders do.
+     */
+    @Modifying
+    @Query("delete from Reservation r where r.warehouse.id = :warehouseId and r.order is null")
+    int deleteWithoutOrderByWarehouseId(@Param("warehouseId") final Long warehouseId);
+
+    @Modifying
+    @Query("delete from Reservation r where r.customer.id = :customerId and r.order is null")
+    int deleteWithoutOrderByCustomerId(@Param("customerId") final Long customerId);
+
+    @Modifying
+    @Query("delete from Reservation r where r.item.id = :itemId and r.order is null")
+    int deleteWithoutOrderByItemId(@Param("itemId") final Long itemId);
+
+    @Modifying
+    @Query("update Reservation r set r.status = :status where r.id in :ids")
+    int updateStatus(@Param("ids") final Collection<Long> ids, @Param("status") final ReservationStatus status);
+
+}
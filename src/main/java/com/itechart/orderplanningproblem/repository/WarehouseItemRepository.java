@@ -0,0 +1,55 @@
+package com.itechart.orderplanningproblem.repository;
+
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseItemStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WarehouseItemRepository extends JpaRepository<WarehouseItem, Long> {
+
+    Optional<WarehouseItem> findByWarehouseIdAndItemId(final Long warehouseId, final Long itemId);
+
+    @Query("select wi.item.id as itemId, wi.warehouse.id as warehouseId, wi.amount as amount from WarehouseItem wi")
+    List<WarehouseItemStock> findAllStock();
+
+    /**
+     * Loads and write-locks the stock of the given items in the given warehouses, in id order so concurrent
+     * bulk adjustments lock rows in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select wi from WarehouseItem wi join fetch wi.item" +
+            " where wi.warehouse.id in :warehouseIds and wi.item.id in :itemIds order by wi.id")
+    List<WarehouseItem> findForUpdate(@Param("warehouseIds") final Collection<Long> warehouseIds,
+                                      @Param("itemIds") final Collection<Long> itemIds);
+
+    @Query("select wi.amount from WarehouseItem wi where wi.warehouse.id = :warehouseId and wi.item.id = :itemId")
+    Optional<Double> findAmount(@Param("warehouseId") final Long warehouseId, @Param("itemId") final Long itemId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update WarehouseItem wi set wi.amount = wi.amount - :amount" +
+            " where wi.warehouse.id = :warehouseId and wi.item.id = :itemId and wi.amount >= :amount")
+    int decreaseAmount(@Param("warehouseId") final Long warehouseId, @Param("itemId") final Long itemId,
+                       @Param("amount") final Double amount);
+
+    @Modifying
+    @Query("delete from WarehouseItem wi" +
+            " where wi.warehouse.id = :warehouseId and wi.item.id = :itemId and wi.amount <= 0")
+    int deleteIfEmpty(@Param("warehouseId") final Long warehouseId, @Param("itemId") final Long itemId);
+
+    @Modifying
+    @Query("delete from WarehouseItem wi" +
+            " where wi.item.id in :itemIds and wi.warehouse.id in :warehouseIds and wi.amount <= 0")
+    int deleteEmpty(@Param("itemIds") final Collection<Long> itemIds,
+                    @Param("warehouseIds") final Collection<Long> warehouseIds);
+
+}
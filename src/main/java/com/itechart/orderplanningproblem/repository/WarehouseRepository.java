@@ -1,21 +1,71 @@
 package com.itechart.orderplanningproblem.repository;
 
 import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseLocation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "location")
+    List<Warehouse> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "location")
+    Page<Warehouse> findAll(final Pageable pageable);
+
+    @EntityGraph(attributePaths = "location")
+    List<Warehouse> findByIdLessThanOrderByIdDesc(final Long id, final Pageable pageable);
+
+    @EntityGraph(attributePaths = {"location", "items.item"})
+    Optional<Warehouse> findWithItemsById(final Long id);
+
+    /**
+     * Loads warehouses together with their items in one statement. Warehouses already loaded in the
+     * persistence context get their items collection initialized, which is how pages fetch items.
+     */
+    @Query("select distinct w from Warehouse w left join fetch w.location left join fetch w.items wi" +
+            " left join fetch wi.item where w.id in :ids")
+    List<Warehouse> findWithItemsByIdIn(@Param("ids") final Collection<Long> ids);
+
+    /**
+     * Loads and write-locks warehouses in id order, so stock rows recreated for the same warehouse by concurrent
+     * transactions are inserted one at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Warehouse w where w.id in :ids order by w.id")
+    List<Warehouse> findForUpdate(@Param("ids") final Collection<Long> ids);
+
     Optional<Warehouse> readByName(final String name);
 
-    @Query("select w from Warehouse w join Distance d on w.id = d.warehouse.id" +
-            " where d.customer.id = :customerId order by d.distanceValue asc")
-    List<Warehouse> findWarehouseForCustomer(@Param("customerId") final Long customerId);
+    @Query("select w.id from Warehouse w where w.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") final Collection<Long> ids);
+
+    @Query("select w.id as warehouseId, w.location.latitude as latitude, w.location.longitude as longitude" +
+            " from Warehouse w")
+    List<WarehouseLocation> findAllLocations();
+
+    @Query("select w.id as warehouseId, w.location.latitude as latitude, w.location.longitude as longitude" +
+            " from Warehouse w where w.distancesReady = true")
+    List<WarehouseLocation> findReadyLocations();
+
+    @Modifying
+    @Query("update Warehouse w set w.distancesReady = true where w.id = :id")
+    int markDistancesReady(@Param("id") final Long id);
 
 }
@@ -0,0 +1,17 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Class-based projection of a distance row with its id, read in bulk while the nearest warehouses of
+ * customers are maintained.
+ */
+@Value
+public class CustomerDistance {
+
+    long id;
+    long customerId;
+    long warehouseId;
+    double distanceValue;
+
+}
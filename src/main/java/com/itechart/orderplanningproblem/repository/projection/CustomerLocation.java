@@ -0,0 +1,15 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+import lombok.Value;
+
+/**
+ * Class-based projection: read through a constructor expression, so bulk reads don't go through a proxy per row.
+ */
+@Value
+public class CustomerLocation {
+
+    long customerId;
+    double latitude;
+    double longitude;
+
+}
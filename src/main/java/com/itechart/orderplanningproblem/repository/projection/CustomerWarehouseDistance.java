@@ -0,0 +1,7 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+public interface CustomerWarehouseDistance extends WarehouseDistance {
+
+    Long getCustomerId();
+
+}
@@ -0,0 +1,9 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+public interface WarehouseDistance {
+
+    Long getWarehouseId();
+
+    Double getDistanceValue();
+
+}
@@ -0,0 +1,11 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+public interface WarehouseItemStock {
+
+    Long getItemId();
+
+    Long getWarehouseId();
+
+    Double getAmount();
+
+}
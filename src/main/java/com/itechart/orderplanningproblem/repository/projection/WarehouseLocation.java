@@ -0,0 +1,11 @@
+package com.itechart.orderplanningproblem.repository.projection;
+
+public interface WarehouseLocation {
+
+    Long getWarehouseId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+}
@@ -0,0 +1,166 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CartDto;
+import com.itechart.orderplanningproblem.dto.CartLineDto;
+import com.itechart.orderplanningproblem.dto.CreateCartDto;
+import com.itechart.orderplanningproblem.entity.Cart;
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.CartMapper;
+import com.itechart.orderplanningproblem.repository.CartRepository;
+import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-item orders. The customer, the stock of every item and the distances from the customer to the stocked
+ * warehouses are read once per cart. Lines are then packed onto the warehouse that can ship the most of them,
+ * the nearest one on a tie, until every line has a warehouse, and the stock of all lines is taken with one
+ * batch of conditional updates.
+ */
+@Service
+@RequiredArgsConstructor
+public class CartService {
+
+    private final CartRepository cartRepository;
+    private final ItemNameCache itemNameCache;
+    private final CustomerRepository customerRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseLocator warehouseLocator;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+    private final CartMapper cartMapper;
+
+    @Transactional
+    public CartDto create(final CreateCartDto createCartDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        Customer customer = customerRepository.findById(createCartDto.getCustomerId())
+                .orElseThrow(() -> new ResourceNotFoundException("There is no customer with id "
+                        + createCartDto.getCustomerId()));
+        Map<String, Item> itemsByName = itemNameCache.findAllByName(createCartDto.getLines().stream()
+                .map(line -> line.getItem().getName())
+                .collect(Collectors.toSet()));
+        Cart cart = new Cart(null, Instant.now(), customer, new ArrayList<>());
+        for (CartLineDto line : createCartDto.getLines()) {
+            Item item = itemsByName.get(line.getItem().getName());
+            if (item == null) {
+                throw new ResourceNotFoundException("There is no item with name " + line.getItem().getName());
+            }
+            cart.getLines().add(new Order(null, line.getAmount(), null, item, customer, null, cart));
+        }
+        allocate(cart.getLines(), customer);
+        return cartMapper.toDto(cartRepository.save(cart));
+    }
+
+    @Transactional(readOnly = true)
+    public CartDto readById(final Long id) throws ResourceNotFoundException {
+        Cart cart = cartRepository.findWithLinesById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart with id = " + id + " doesn't exist"));
+        warehouseRepository.findWithItemsByIdIn(cart.getLines().stream()
+                .map(line -> line.getWarehouse().getId())
+                .collect(Collectors.toSet()));
+        return cartMapper.toDto(cart);
+    }
+
+    private void allocate(final List<Order> lines, final Customer customer) throws UnprocessableEntityException {
+        Map<Long, Map<Long, Double>> stockByItemId = new HashMap<>();
+        Set<Long> stockedWarehouseIds = new HashSet<>();
+        for (Order line : lines) {
+            stockedWarehouseIds.addAll(stockByItemId.computeIfAbsent(line.getItem().getId(),
+                    itemId -> new HashMap<>(stockIndex.findStock(itemId))).keySet());
+        }
+        Map<Long, Double> distances = stockedWarehouseIds.isEmpty()
+                ? Collections.emptyMap()
+                : warehouseLocator.findDistances(List.of(customer), stockedWarehouseIds)
+                        .getOrDefault(customer.getId(), Collections.emptyMap());
+        List<Long> candidates = distances.keySet().stream()
+                .sorted(Comparator.comparing(distances::get))
+                .collect(Collectors.toList());
+
+        Long[] warehouseIdsByLine = new Long[lines.size()];
+        Map<Long, Map<Long, Double>> takenByItemId = new HashMap<>();
+        List<Integer> unallocated = IntStream.range(0, lines.size()).boxed().collect(Collectors.toList());
+        while (!unallocated.isEmpty()) {
+            Long chosenWarehouseId = null;
+            List<Integer> chosenLines = Collections.emptyList();
+            for (int i = 0; i < candidates.size() && chosenLines.size() < unallocated.size(); i++) {
+                List<Integer> shippable = shippableLines(lines, unallocated, candidates.get(i), stockByItemId);
+                if (shippable.size() > chosenLines.size()) {
+                    chosenWarehouseId = candidates.get(i);
+                    chosenLines = shippable;
+                }
+            }
+            if (chosenWarehouseId == null) {
+                throw new UnprocessableEntityException("There is not any warehouse that contains "
+                        + unallocated.stream()
+                        .map(position -> lines.get(position).getItem().getName())
+                        .distinct()
+                        .collect(Collectors.joining(", "))
+                        + " with such amount!");
+            }
+            for (Integer position : chosenLines) {
+                Order line = lines.get(position);
+                Long itemId = line.getItem().getId();
+                stockByItemId.get(itemId).merge(chosenWarehouseId, -line.getAmount(), Double::sum);
+                takenByItemId.computeIfAbsent(itemId, id -> new HashMap<>())
+                        .merge(chosenWarehouseId, line.getAmount(), Double::sum);
+                line.setDistance(distances.get(chosenWarehouseId));
+                warehouseIdsByLine[position] = chosenWarehouseId;
+            }
+            unallocated.removeAll(new HashSet<>(chosenLines));
+        }
+
+        if (!stockService.decreaseAmounts(takenByItemId)) {
+            throw new UnprocessableEntityException("Stock of warehouses has changed while the cart was allocated,"
+                    + " please retry!");
+        }
+        Map<Long, Warehouse> warehousesById = warehouseRepository.findWithItemsByIdIn(
+                new HashSet<>(Arrays.asList(warehouseIdsByLine))).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        for (int position = 0; position < lines.size(); position++) {
+            lines.get(position).setWarehouse(warehousesById.get(warehouseIdsByLine[position]));
+        }
+    }
+
+    /**
+     * Positions of the lines that the warehouse can ship together from its remaining stock.
+     */
+    private static List<Integer> shippableLines(final List<Order> lines, final List<Integer> positions,
+                                                final Long warehouseId,
+                                                final Map<Long, Map<Long, Double>> stockByItemId) {
+        Map<Long, Double> takenByItemId = new HashMap<>();
+        List<Integer> shippable = new ArrayList<>();
+        for (Integer position : positions) {
+            Order line = lines.get(position);
+            Long itemId = line.getItem().getId();
+            double taken = takenByItemId.getOrDefault(itemId, 0.0);
+            if (stockByItemId.get(itemId).getOrDefault(warehouseId, 0.0) - taken >= line.getAmount()) {
+                takenByItemId.put(itemId, taken + line.getAmount());
+                shippable.add(position);
+            }
+        }
+        return shippable;
+    }
+
+}
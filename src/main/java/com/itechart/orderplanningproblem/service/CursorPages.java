@@ -0,0 +1,66 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over id DESC: a page is the next size rows with id < last id of the previous page, so
+ * neither an offset nor a count query is needed. One extra row is fetched to tell whether a next page exists.
+ * The cursor is opaque to clients.
+ */
+public final class CursorPages {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private CursorPages() {
+    }
+
+    /**
+     * @return id to seek below, Long.MAX_VALUE for the first page
+     */
+    public static Long decode(final String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new UnprocessableEntityException("Cursor " + cursor + " is not valid!");
+    }
+
+    public static String encode(final Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Pageable limit(final int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * @param rows result of a query limited with {@link #limit(int)}
+     */
+    public static <E, D> CursorPageDto<D> toPage(final List<E> rows, final int size,
+                                                  final Function<E, Long> idOf, final Function<E, D> mapper) {
+        List<D> content = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            content.add(mapper.apply(rows.get(i)));
+        }
+        String nextCursor = rows.size() > size ? encode(idOf.apply(rows.get(size - 1))) : null;
+        return new CursorPageDto<>(content, nextCursor);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportResultDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates a bulk of customers row by row and creates the valid ones through
+ * {@link CustomerService#createBatch(List)} in chunks, each in its own transaction. Invalid rows, names
+ * that are taken and chunks that fail are reported per row without aborting the rest of the bulk.
+ */
+@Slf4j
+@Service
+public class CustomerImportService {
+
+    private final CustomerService customerService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public CustomerImportService(final CustomerService customerService, final Validator validator,
+                                 final EntityManager entityManager,
+                                 @Value("${customers.import.chunk-size:500}") final int chunkSize) {
+        this.customerService = customerService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<CustomerImportResultDto> importCustomers(final List<CustomerDto> customerDtos) {
+        List<CustomerImportResultDto> results = new ArrayList<>(customerDtos.size());
+        List<CustomerImportResultDto> chunkResults = new ArrayList<>();
+        List<CustomerDto> chunk = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < customerDtos.size(); i++) {
+            CustomerDto customerDto = customerDtos.get(i);
+            CustomerImportResultDto result = CustomerImportResultDto.builder()
+                    .line(i)
+                    .name(customerDto == null ? null : customerDto.getName())
+                    .build();
+            results.add(result);
+            String message = validate(customerDto);
+            if (message != null) {
+                reject(result, CustomerImportStatus.INVALID, message);
+            } else if (!names.add(customerDto.getName())) {
+                reject(result, CustomerImportStatus.DUPLICATE, CustomerService.CUSTOMER_NAME_SHOULD_BE_UNIQUE_LITERAL);
+            } else {
+                customerDto.setId(null);
+                chunk.add(customerDto);
+                chunkResults.add(result);
+                if (chunk.size() >= chunkSize) {
+                    create(chunk, chunkResults);
+                    chunk = new ArrayList<>();
+                    chunkResults = new ArrayList<>();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            create(chunk, chunkResults);
+        }
+        return results;
+    }
+
+    private void create(final List<CustomerDto> chunk, final List<CustomerImportResultDto> chunkResults) {
+        try {
+            Map<String, CustomerDto> createdByName = customerService.createBatch(chunk).stream()
+                    .collect(Collectors.toMap(CustomerDto::getName, Function.identity()));
+            for (CustomerImportResultDto result : chunkResults) {
+                CustomerDto created = createdByName.get(result.getName());
+                if (created == null) {
+                    reject(result, CustomerImportStatus.DUPLICATE,
+                            CustomerService.CUSTOMER_NAME_SHOULD_BE_UNIQUE_LITERAL);
+                } else {
+                    result.setId(created.getId());
+                    result.setStatus(CustomerImportStatus.CREATED);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Customer import chunk of {} customers starting at line {} rolled back", chunk.size(),
+                    chunkResults.get(0).getLine(), e);
+            chunkResults.forEach(result -> reject(result, CustomerImportStatus.FAILED, e.getMessage()));
+        } finally {
+            // with open-in-view the request keeps one persistence context, so drop the committed entities
+            entityManager.clear();
+        }
+    }
+
+    private String validate(final CustomerDto customerDto) {
+        if (customerDto == null) {
+            return "Customer is mandatory!";
+        }
+        Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private void reject(final CustomerImportResultDto result, final CustomerImportStatus status,
+                        final String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+}
@@ -1,24 +1,32 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.CustomerDto;
 import com.itechart.orderplanningproblem.entity.Customer;
 import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Warehouse;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.CustomerMapper;
 import com.itechart.orderplanningproblem.repository.CustomerRepository;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseLocation;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,41 +35,123 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final DistanceRepository distanceRepository;
     private final WarehouseRepository warehouseRepository;
-    private final ObjectMapper objectMapper;
+    private final CustomerMapper customerMapper;
     private final DistanceService distanceService;
+    private final WarehouseLocator warehouseLocator;
+    private final EntityManager entityManager;
+    private final ReservationService reservationService;
 
-    private static final String CUSTOMER_NAME_SHOULD_BE_UNIQUE_LITERAL = "Customer with such name already exists. " +
+    static final String CUSTOMER_NAME_SHOULD_BE_UNIQUE_LITERAL = "Customer with such name already exists. " +
             "Customer name should be unique!";
 
     @Transactional
     public CustomerDto create(final CustomerDto customerDto) {
         checkInDbByName(customerDto.getName());
-        Customer customerFromDto = objectMapper.convertValue(customerDto, Customer.class);
+        Customer customerFromDto = customerMapper.toEntity(customerDto);
         Customer createdCustomer = customerRepository.save(customerFromDto);
-        mapCustomerToExistentWarehouses(createdCustomer);
-        return objectMapper.convertValue(createdCustomer, CustomerDto.class);
+        if (warehouseLocator.usesDistanceTable()) {
+            mapCustomerToExistentWarehouses(createdCustomer);
+        }
+        return customerMapper.toDto(createdCustomer);
+    }
+
+    /**
+     * Creates the customers whose names are not taken yet and skips the others, so the caller can report them.
+     * Warehouse locations are read once for the whole batch and customers and distances go out as JDBC batches.
+     */
+    @Transactional
+    public List<CustomerDto> createBatch(final List<CustomerDto> customerDtos) {
+        Set<String> takenNames = customerRepository.findNamesByNameIn(customerDtos.stream()
+                .map(CustomerDto::getName)
+                .collect(Collectors.toList()));
+        List<Customer> createdCustomers = customerRepository.saveAll(customerDtos.stream()
+                .filter(customerDto -> !takenNames.contains(customerDto.getName()))
+                .map(customerMapper::toEntity)
+                .collect(Collectors.toList()));
+        if (warehouseLocator.usesDistanceTable() && !createdCustomers.isEmpty()) {
+            mapCustomersToExistentWarehouses(createdCustomers);
+        }
+        return createdCustomers.stream()
+                .map(customerMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Computes the customers x warehouses distance block on the fork-join pool, one customer row per task,
+     * and references warehouses through uninitialized proxies.
+     */
+    private void mapCustomersToExistentWarehouses(final List<Customer> customers) {
+        List<WarehouseLocation> warehouseLocations = warehouseRepository.findAllLocations();
+        double[] latitudes = new double[warehouseLocations.size()];
+        double[] longitudes = new double[warehouseLocations.size()];
+        for (int i = 0; i < warehouseLocations.size(); i++) {
+            latitudes[i] = warehouseLocations.get(i).getLatitude();
+            longitudes[i] = warehouseLocations.get(i).getLongitude();
+        }
+        double[][] distanceValues = new double[customers.size()][warehouseLocations.size()];
+        IntStream.range(0, customers.size()).parallel().forEach(i -> distanceService
+                .getDistancesByLatitudeAndLongitude(customers.get(i).getLocation().getLatitude(),
+                        customers.get(i).getLocation().getLongitude(), latitudes, longitudes, distanceValues[i]));
+        List<Warehouse> warehouses = warehouseLocations.stream()
+                .map(location -> entityManager.getReference(Warehouse.class, location.getWarehouseId()))
+                .collect(Collectors.toList());
+        int rowsPerCustomer = Math.min(warehouses.size(),
+                warehouseLocator.distanceTableLimit().orElse(warehouses.size()));
+        List<Distance> distances = new ArrayList<>(customers.size() * rowsPerCustomer);
+        for (int i = 0; i < customers.size(); i++) {
+            for (int j : nearestIndices(distanceValues[i])) {
+                distances.add(new Distance(null, distanceValues[i][j], customers.get(i), warehouses.get(j)));
+            }
+        }
+        distanceRepository.saveAll(distances);
     }
 
     private void mapCustomerToExistentWarehouses(final Customer customer) {
         List<Warehouse> allWarehouses = warehouseRepository.findAll();
-        List<Distance> distances = allWarehouses.stream().map(warehouse -> {
-            double distanceValue = distanceService.getDistanceByLatitudeAndLongitude(
-                    customer.getLocation().getLatitude(), customer.getLocation().getLongitude(),
-                    warehouse.getLocation().getLatitude(), warehouse.getLocation().getLongitude());
-            return new Distance(null, distanceValue, customer, warehouse);
-        }).collect(Collectors.toList());
+        double[] latitudes = new double[allWarehouses.size()];
+        double[] longitudes = new double[allWarehouses.size()];
+        for (int i = 0; i < allWarehouses.size(); i++) {
+            latitudes[i] = allWarehouses.get(i).getLocation().getLatitude();
+            longitudes[i] = allWarehouses.get(i).getLocation().getLongitude();
+        }
+        double[] distanceValues = new double[allWarehouses.size()];
+        distanceService.getDistancesByLatitudeAndLongitude(customer.getLocation().getLatitude(),
+                customer.getLocation().getLongitude(), latitudes, longitudes, distanceValues);
+        List<Distance> distances = new ArrayList<>(allWarehouses.size());
+        for (int i : nearestIndices(distanceValues)) {
+            distances.add(new Distance(null, distanceValues[i], customer, allWarehouses.get(i)));
+        }
         distanceRepository.saveAll(distances);
     }
 
+    /**
+     * @return indices of the warehouses the distance table keeps for the customer, all of them by default
+     */
+    private int[] nearestIndices(final double[] distanceValues) {
+        OptionalInt limit = warehouseLocator.distanceTableLimit();
+        if (limit.isEmpty() || distanceValues.length <= limit.getAsInt()) {
+            return IntStream.range(0, distanceValues.length).toArray();
+        }
+        return IntStream.range(0, distanceValues.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> distanceValues[i]))
+                .limit(limit.getAsInt())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
     public CustomerDto readById(final Long id) throws ResourceNotFoundException {
-        return customerRepository.findById(id).map(
-                customer -> objectMapper.convertValue(customer, CustomerDto.class))
+        return customerRepository.findById(id).map(customerMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer with id = " + id + " doesn't exist"));
     }
 
     public Page<CustomerDto> readPage(Pageable pageable) {
         return customerRepository.findAll(pageable)
-                .map(customer -> objectMapper.convertValue(customer, CustomerDto.class));
+                .map(customerMapper::toDto);
+    }
+
+    public CursorPageDto<CustomerDto> readCursorPage(final String cursor, final int size) {
+        return CursorPages.toPage(customerRepository.findByIdLessThanOrderByIdDesc(CursorPages.decode(cursor),
+                CursorPages.limit(size)), size, Customer::getId, customerMapper::toDto);
     }
 
     @Transactional
@@ -72,12 +162,13 @@ public class CustomerService {
         checkInDbByName(newName);
         customer.setName(newName);
         Customer savedCustomer = customerRepository.save(customer);
-        return objectMapper.convertValue(savedCustomer, CustomerDto.class);
+        return customerMapper.toDto(savedCustomer);
     }
 
     @Transactional
     public void deleteById(final Long id) {
         customerRepository.findById(id).ifPresent(customer -> {
+            reservationService.releaseByCustomerId(id);
             distanceRepository.deleteByCustomerId(id);
             customerRepository.deleteById(id);
         });
@@ -0,0 +1,273 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.DistanceJobDto;
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Distance;
+import com.itechart.orderplanningproblem.entity.DistanceJob;
+import com.itechart.orderplanningproblem.entity.DistanceJobStatus;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.repository.DistanceJobRepository;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.CustomerDistance;
+import com.itechart.orderplanningproblem.repository.projection.CustomerLocation;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the distances of a new warehouse to every existing customer in the background, one chunk of
+ * customers per transaction on a dedicated executor. Each chunk commits its distances together with the
+ * job progress, so a job interrupted by a crash or a failure resumes after its last completed chunk, on
+ * startup or on request. The warehouse is marked ready for allocation by the transaction of the last chunk.
+ * When the table keeps only the nearest warehouses of a customer, a row is written only where the warehouse
+ * is among them, displacing the farthest one.
+ */
+@Slf4j
+@Service
+public class DistanceFanOutService {
+
+    private final DistanceJobRepository distanceJobRepository;
+    private final DistanceRepository distanceRepository;
+    private final CustomerRepository customerRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final DistanceService distanceService;
+    private final WarehouseLocator warehouseLocator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate chunkTransaction;
+    private final boolean async;
+    private final int threads;
+    private final int chunkSize;
+    private ExecutorService executor;
+
+    public DistanceFanOutService(final DistanceJobRepository distanceJobRepository,
+                                 final DistanceRepository distanceRepository,
+                                 final CustomerRepository customerRepository,
+                                 final WarehouseRepository warehouseRepository,
+                                 final DistanceService distanceService, final WarehouseLocator warehouseLocator,
+                                 final EntityManager entityManager,
+                                 final PlatformTransactionManager transactionManager,
+                                 @Value("${distance.fan-out.async:true}") final boolean async,
+                                 @Value("${distance.fan-out.threads:2}") final int threads,
+                                 @Value("${distance.fan-out.chunk-size:5000}") final int chunkSize) {
+        this.distanceJobRepository = distanceJobRepository;
+        this.distanceRepository = distanceRepository;
+        this.customerRepository = customerRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.distanceService = distanceService;
+        this.warehouseLocator = warehouseLocator;
+        this.entityManager = entityManager;
+        // chunks run after the commit of the warehouse, possibly on the same thread, so they need their own
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.async = async;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (async) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads,
+                    runnable -> new Thread(runnable, "distance-fan-out-" + threadNumber.incrementAndGet()));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Registers the fan-out of a warehouse being created and starts it once the warehouse is committed.
+     */
+    public void schedule(final Warehouse warehouse) {
+        Instant now = Instant.now();
+        distanceJobRepository.save(new DistanceJob(warehouse.getId(), DistanceJobStatus.RUNNING, 0L, 0L,
+                customerRepository.count(), now, now, null));
+        Long warehouseId = warehouse.getId();
+        TransactionHooks.afterCommit(() -> submit(warehouseId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (DistanceJob job : distanceJobRepository.findByStatusNot(DistanceJobStatus.COMPLETED)) {
+            log.info("Resuming distance fan-out of warehouse {} after customer {}", job.getWarehouseId(),
+                    job.getLastCustomerId());
+            submit(job.getWarehouseId());
+        }
+    }
+
+    public DistanceJobDto resume(final Long warehouseId) throws ResourceNotFoundException {
+        DistanceJob job = findJob(warehouseId);
+        if (job.getStatus() == DistanceJobStatus.FAILED) {
+            submit(warehouseId);
+        }
+        return toDto(job);
+    }
+
+    public DistanceJobDto readJob(final Long warehouseId) throws ResourceNotFoundException {
+        return toDto(findJob(warehouseId));
+    }
+
+    private DistanceJob findJob(final Long warehouseId) throws ResourceNotFoundException {
+        return distanceJobRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Distance job for warehouse with id = "
+                        + warehouseId + " doesn't exist"));
+    }
+
+    private void submit(final Long warehouseId) {
+        if (async) {
+            executor.execute(() -> run(warehouseId));
+        } else {
+            run(warehouseId);
+        }
+    }
+
+    private void run(final Long warehouseId) {
+        try {
+            Boolean hasMoreCustomers;
+            do {
+                hasMoreCustomers = chunkTransaction.execute(status -> processChunk(warehouseId));
+            } while (Boolean.TRUE.equals(hasMoreCustomers) && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            log.error("Distance fan-out of warehouse {} failed", warehouseId, e);
+            chunkTransaction.executeWithoutResult(status -> distanceJobRepository.findForUpdate(warehouseId)
+                    .ifPresent(job -> {
+                        job.setStatus(DistanceJobStatus.FAILED);
+                        job.setMessage(failureMessage(e));
+                        job.setUpdatedAt(Instant.now());
+                    }));
+        }
+    }
+
+    /**
+     * @return the message of the failure cut to the length of the message column, so recording the failure
+     * doesn't fail itself
+     */
+    static String failureMessage(final RuntimeException e) {
+        String message = e.getMessage();
+        return message == null || message.length() <= DistanceJob.MESSAGE_LENGTH
+                ? message : message.substring(0, DistanceJob.MESSAGE_LENGTH);
+    }
+
+    /**
+     * @return true if the job has more customers to process
+     */
+    private boolean processChunk(final Long warehouseId) {
+        Optional<DistanceJob> lockedJob = distanceJobRepository.findForUpdate(warehouseId);
+        if (lockedJob.isEmpty() || lockedJob.get().getStatus() == DistanceJobStatus.COMPLETED) {
+            return false;
+        }
+        DistanceJob job = lockedJob.get();
+        Warehouse warehouse = warehouseRepository.getOne(warehouseId);
+        List<CustomerLocation> customerLocations = customerRepository.findLocationsWithoutDistanceTo(warehouseId,
+                job.getLastCustomerId(), PageRequest.of(0, chunkSize));
+        if (!customerLocations.isEmpty()) {
+            List<Distance> distances = toDistances(warehouse, customerLocations);
+            OptionalInt limit = warehouseLocator.distanceTableLimit();
+            distanceRepository.saveAll(limit.isPresent() ? keepNearest(distances, limit.getAsInt()) : distances);
+            job.setLastCustomerId(customerLocations.get(customerLocations.size() - 1).getCustomerId());
+            job.setProcessedCustomers(job.getProcessedCustomers() + customerLocations.size());
+        }
+        job.setStatus(DistanceJobStatus.RUNNING);
+        job.setMessage(null);
+        job.setUpdatedAt(Instant.now());
+        if (customerLocations.size() < chunkSize) {
+            job.setStatus(DistanceJobStatus.COMPLETED);
+            warehouseRepository.markDistancesReady(warehouseId);
+            warehouseLocator.markDistancesReady(warehouse);
+            log.info("Distance fan-out of warehouse {} completed for {} customers", warehouseId,
+                    job.getProcessedCustomers());
+            return false;
+        }
+        return true;
+    }
+
+    private List<Distance> toDistances(final Warehouse warehouse, final List<CustomerLocation> customerLocations) {
+        double[] latitudes = new double[customerLocations.size()];
+        double[] longitudes = new double[customerLocations.size()];
+        for (int i = 0; i < customerLocations.size(); i++) {
+            latitudes[i] = customerLocations.get(i).getLatitude();
+            longitudes[i] = customerLocations.get(i).getLongitude();
+        }
+        double[] distanceValues = new double[customerLocations.size()];
+        distanceService.getDistancesByLatitudeAndLongitude(warehouse.getLocation().getLatitude(),
+                warehouse.getLocation().getLongitude(), latitudes, longitudes, distanceValues);
+        List<Distance> distances = new ArrayList<>(customerLocations.size());
+        for (int i = 0; i < customerLocations.size(); i++) {
+            distances.add(new Distance(null, distanceValues[i],
+                    entityManager.getReference(Customer.class, customerLocations.get(i).getCustomerId()), warehouse));
+        }
+        return distances;
+    }
+
+    /**
+     * Locks the customers first, so that another fan-out can't read the same kept rows and also add to them.
+     *
+     * @return the distances that are among the nearest of their customers, after deleting the rows they displace
+     */
+    private List<Distance> keepNearest(final List<Distance> distances, final int limit) {
+        List<Long> customerIds = distances.stream()
+                .map(distance -> distance.getCustomer().getId())
+                .collect(Collectors.toList());
+        customerRepository.lockByIdIn(customerIds);
+        Map<Long, List<CustomerDistance>> keptByCustomerId = distanceRepository.findByCustomerIds(customerIds).stream()
+                .collect(Collectors.groupingBy(CustomerDistance::getCustomerId));
+        List<Distance> nearest = new ArrayList<>();
+        List<Long> displacedIds = new ArrayList<>();
+        for (Distance distance : distances) {
+            List<CustomerDistance> kept = keptByCustomerId.getOrDefault(distance.getCustomer().getId(), List.of());
+            if (kept.size() < limit) {
+                nearest.add(distance);
+                continue;
+            }
+            CustomerDistance farthest = Collections.max(kept,
+                    Comparator.comparingDouble(CustomerDistance::getDistanceValue));
+            if (distance.getDistanceValue() < farthest.getDistanceValue()) {
+                nearest.add(distance);
+                displacedIds.add(farthest.getId());
+            }
+        }
+        if (!displacedIds.isEmpty()) {
+            distanceRepository.deleteByIdIn(displacedIds);
+        }
+        return nearest;
+    }
+
+    private DistanceJobDto toDto(final DistanceJob job) {
+        return new DistanceJobDto(job.getWarehouseId(), job.getStatus(), job.getProcessedCustomers(),
+                job.getTotalCustomers(), job.getStartedAt(), job.getUpdatedAt(), job.getMessage());
+    }
+
+}
@@ -1,8 +1,8 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itechart.orderplanningproblem.dto.DistanceDto;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.mapper.DistanceMapper;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,30 +12,51 @@ import org.springframework.stereotype.Service;
 public class DistanceService {
 
     private final DistanceRepository distanceRepository;
-    private final ObjectMapper objectMapper;
+    private final DistanceMapper distanceMapper;
+
+    private static final double EARTH_RADIUS_KM = 6371;
 
     public DistanceDto readById(final Long id) throws ResourceNotFoundException {
-        return distanceRepository.findById(id).map(
-                distance -> objectMapper.convertValue(distance, DistanceDto.class))
+        return distanceRepository.findById(id).map(distanceMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Distance with id = " + id + " doesn't exist"));
     }
 
     public Double getDistanceByLatitudeAndLongitude(final Double firstLatitude, final Double firstLongitude,
                                                      final Double secondLatitude, final Double secondLongitude) {
-        double radiusOfEarth = 6371;
-        double diffLat = degreesToRadians(secondLatitude - firstLatitude);
-        double diffLong = degreesToRadians(secondLongitude - firstLongitude);
-        double a =
-                Math.sin(diffLat/2) * Math.sin(diffLat/2) +
-                        Math.cos(degreesToRadians(firstLatitude)) * Math.cos(degreesToRadians(secondLatitude)) *
-                                Math.sin(diffLong/2) * Math.sin(diffLong/2)
-                ;
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        return radiusOfEarth * c;
+        double firstLatitudeRadians = Math.toRadians(firstLatitude);
+        double secondLatitudeRadians = Math.toRadians(secondLatitude);
+        return haversine(firstLatitudeRadians, Math.cos(firstLatitudeRadians), Math.toRadians(firstLongitude),
+                secondLatitudeRadians, Math.cos(secondLatitudeRadians), Math.toRadians(secondLongitude));
+    }
+
+    /**
+     * Writes into distances[i] the distance in kilometres between the origin and the point
+     * (latitudes[i], longitudes[i]). Nothing is boxed or allocated, so the loop stays cheap for large fan-outs.
+     */
+    public void getDistancesByLatitudeAndLongitude(final double originLatitude, final double originLongitude,
+                                                   final double[] latitudes, final double[] longitudes,
+                                                   final double[] distances) {
+        if (latitudes.length != longitudes.length || distances.length < latitudes.length) {
+            throw new IllegalArgumentException("Latitudes, longitudes and distances should have the same length");
+        }
+        double originLatitudeRadians = Math.toRadians(originLatitude);
+        double originCosLatitude = Math.cos(originLatitudeRadians);
+        double originLongitudeRadians = Math.toRadians(originLongitude);
+        for (int i = 0; i < latitudes.length; i++) {
+            double latitudeRadians = Math.toRadians(latitudes[i]);
+            distances[i] = haversine(originLatitudeRadians, originCosLatitude, originLongitudeRadians,
+                    latitudeRadians, Math.cos(latitudeRadians), Math.toRadians(longitudes[i]));
+        }
     }
 
-    private Double degreesToRadians(final Double degrees) {
-        return degrees * (Math.PI/180);
+    private static double haversine(final double firstLatitude, final double firstCosLatitude,
+                                    final double firstLongitude, final double secondLatitude,
+                                    final double secondCosLatitude, final double secondLongitude) {
+        double sinHalfDiffLat = Math.sin((secondLatitude - firstLatitude) / 2);
+        double sinHalfDiffLong = Math.sin((secondLongitude - firstLongitude) / 2);
+        double a = sinHalfDiffLat * sinHalfDiffLat
+                + firstCosLatitude * secondCosLatitude * sinHalfDiffLong * sinHalfDiffLong;
+        return EARTH_RADIUS_KM * 2 * Math.asin(Math.min(1, Math.sqrt(a)));
     }
 
 }
@@ -0,0 +1,105 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams whole tables as NDJSON straight from a forward-only JDBC cursor, one row at a time, without
+ * entities, pages or count queries, so memory use doesn't depend on the table size. On MySQL the cursor
+ * is server-side because the connection uses useCursorFetch.
+ */
+@Service
+public class ExportService {
+
+    private static final String ORDERS_QUERY = "select o.id, o.amount, o.distance, o.item_id, i.name,"
+            + " o.customer_id, o.warehouse_id from item_order o join item i on i.id = o.item_id order by o.id";
+    private static final String WAREHOUSE_ITEMS_QUERY = "select wi.id, wi.warehouse_id, wi.item_id, i.name,"
+            + " wi.amount from warehouse_item wi join item i on i.id = wi.item_id order by wi.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter exportedOrders;
+    private final Counter exportedWarehouseItems;
+
+    public ExportService(final DataSource dataSource, final ObjectMapper objectMapper,
+                         final MeterRegistry meterRegistry,
+                         @Value("${export.fetch-size:1000}") final int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.exportedOrders = rowCounter(meterRegistry, "item_order");
+        this.exportedWarehouseItems = rowCounter(meterRegistry, "warehouse_item");
+    }
+
+    public void exportOrders(final OutputStream outputStream, final boolean gzip) throws IOException {
+        export(ORDERS_QUERY, outputStream, gzip, exportedOrders, (resultSet, generator) -> {
+            generator.writeNumberField("id", resultSet.getLong(1));
+            generator.writeNumberField("amount", resultSet.getDouble(2));
+            generator.writeNumberField("distance", resultSet.getDouble(3));
+            generator.writeNumberField("itemId", resultSet.getLong(4));
+            generator.writeStringField("itemName", resultSet.getString(5));
+            generator.writeNumberField("customerId", resultSet.getLong(6));
+            generator.writeNumberField("warehouseId", resultSet.getLong(7));
+        });
+    }
+
+    public void exportWarehouseItems(final OutputStream outputStream, final boolean gzip) throws IOException {
+        export(WAREHOUSE_ITEMS_QUERY, outputStream, gzip, exportedWarehouseItems, (resultSet, generator) -> {
+            generator.writeNumberField("id", resultSet.getLong(1));
+            generator.writeNumberField("warehouseId", resultSet.getLong(2));
+            generator.writeNumberField("itemId", resultSet.getLong(3));
+            generator.writeStringField("itemName", resultSet.getString(4));
+            generator.writeNumberField("amount", resultSet.getDouble(5));
+        });
+    }
+
+    private void export(final String query, final OutputStream outputStream, final boolean gzip,
+                        final Counter exportedRows, final RowWriter rowWriter) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(query, resultSet -> {
+                try {
+                    generator.writeStartObject();
+                    rowWriter.write(resultSet, generator);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exportedRows.increment();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Counter rowCounter(final MeterRegistry meterRegistry, final String table) {
+        return Counter.builder("export.rows")
+                .description("Rows streamed by the NDJSON exports")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(ResultSet resultSet, JsonGenerator generator) throws SQLException, IOException;
+
+    }
+
+}
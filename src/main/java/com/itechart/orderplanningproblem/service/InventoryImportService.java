@@ -0,0 +1,250 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.itechart.orderplanningproblem.dto.InventoryImportChunkDto;
+import com.itechart.orderplanningproblem.dto.InventoryImportFormat;
+import com.itechart.orderplanningproblem.dto.InventoryImportReportDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentResultDto;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentStatus;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an inventory file line by line and applies it through {@link StockAdjustmentService} in chunks,
+ * each chunk in its own transaction, so only one chunk is held in memory and a failed chunk leaves the
+ * chunks committed before it in place.
+ * <p>
+ * CSV lines are {@code warehouseId,itemName,amount[,operation]} with an optional header, NDJSON lines have
+ * the shape of {@link WarehouseItemChangeAmountDto}. Lines without an operation add their amount.
+ */
+@Slf4j
+@Service
+public class InventoryImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final StockAdjustmentService stockAdjustmentService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ObjectReader lineReader;
+    private final int chunkSize;
+    private final Timer chunkDuration;
+    private final Counter appliedLines;
+    private final Counter rejectedLines;
+    private final Counter failedLines;
+
+    public InventoryImportService(final StockAdjustmentService stockAdjustmentService, final Validator validator,
+                                  final EntityManager entityManager, final ObjectMapper objectMapper,
+                                  final MeterRegistry meterRegistry,
+                                  @Value("${inventory.import.chunk-size:5000}") final int chunkSize) {
+        this.stockAdjustmentService = stockAdjustmentService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.lineReader = objectMapper.readerFor(WarehouseItemChangeAmountDto.class);
+        this.chunkSize = chunkSize;
+        this.chunkDuration = Timer.builder("inventory.import.chunk.duration")
+                .description("Time to parse and commit one chunk of an inventory import")
+                .register(meterRegistry);
+        this.appliedLines = lineCounter(meterRegistry, "applied");
+        this.rejectedLines = lineCounter(meterRegistry, "rejected");
+        this.failedLines = lineCounter(meterRegistry, "failed");
+    }
+
+    public InventoryImportReportDto importInventory(final InputStream inputStream, final InventoryImportFormat format)
+            throws IOException {
+        long startedAt = System.nanoTime();
+        InventoryImportReportDto report = new InventoryImportReportDto(0, 0, 0, 0, 0, new ArrayList<>(),
+                new ArrayList<>());
+        Chunk chunk = new Chunk(1, System.nanoTime());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String text;
+        long lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank() || (lineNumber == 1 && format == InventoryImportFormat.CSV && isCsvHeader(text))) {
+                continue;
+            }
+            chunk.add(lineNumber, text, format);
+            if (chunk.size() >= chunkSize) {
+                commit(chunk, report);
+                chunk = new Chunk(chunk.index + 1, System.nanoTime());
+            }
+        }
+        if (chunk.size() > 0) {
+            commit(chunk, report);
+        }
+        report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        log.info("Inventory import finished: {} lines, {} applied, {} rejected, {} failed in {} ms",
+                report.getLines(), report.getApplied(), report.getRejected(), report.getFailed(),
+                report.getDurationMs());
+        return report;
+    }
+
+    private void commit(final Chunk chunk, final InventoryImportReportDto report) {
+        InventoryImportChunkDto chunkReport = InventoryImportChunkDto.builder()
+                .chunk(chunk.index)
+                .firstLine(chunk.firstLine)
+                .lastLine(chunk.lastLine)
+                .build();
+        List<StockAdjustmentResultDto> rejections = new ArrayList<>(chunk.rejections);
+        try {
+            List<StockAdjustmentResultDto> results = chunk.lines.isEmpty()
+                    ? List.of() : stockAdjustmentService.adjust(chunk.lines);
+            for (StockAdjustmentResultDto result : results) {
+                result.setLine(chunk.lineNumbers.get((int) result.getLine()));
+                if (result.getStatus() == StockAdjustmentStatus.APPLIED) {
+                    chunkReport.setApplied(chunkReport.getApplied() + 1);
+                } else {
+                    rejections.add(result);
+                }
+            }
+            chunkReport.setCommitted(true);
+        } catch (RuntimeException e) {
+            log.warn("Inventory import chunk {} (lines {}-{}) rolled back", chunk.index, chunkReport.getFirstLine(),
+                    chunkReport.getLastLine(), e);
+            chunkReport.setMessage(e.getMessage());
+            failedLines.increment(chunk.lines.size());
+            report.setFailed(report.getFailed() + chunk.lines.size());
+        } finally {
+            // with open-in-view the request keeps one persistence context, so drop the committed entities
+            entityManager.clear();
+        }
+        rejections.sort(Comparator.comparingLong(StockAdjustmentResultDto::getLine));
+        chunkReport.setRejected(rejections.size());
+        long duration = System.nanoTime() - chunk.startedAt;
+        chunkReport.setDurationMs(TimeUnit.NANOSECONDS.toMillis(duration));
+        chunkDuration.record(duration, TimeUnit.NANOSECONDS);
+        appliedLines.increment(chunkReport.getApplied());
+        rejectedLines.increment(rejections.size());
+
+        report.setLines(report.getLines() + chunk.size());
+        report.setApplied(report.getApplied() + chunkReport.getApplied());
+        report.setRejected(report.getRejected() + rejections.size());
+        report.getChunks().add(chunkReport);
+        rejections.stream()
+                .limit(Math.max(0, MAX_REPORTED_ERRORS - report.getErrors().size()))
+                .forEach(report.getErrors()::add);
+        log.info("Inventory import chunk {} (lines {}-{}) {}: {} applied, {} rejected in {} ms, {} lines so far",
+                chunk.index, chunkReport.getFirstLine(), chunkReport.getLastLine(),
+                chunkReport.isCommitted() ? "committed" : "failed", chunkReport.getApplied(),
+                chunkReport.getRejected(), chunkReport.getDurationMs(), report.getLines());
+    }
+
+    private WarehouseItemChangeAmountDto parse(final String text, final InventoryImportFormat format)
+            throws JsonProcessingException {
+        WarehouseItemChangeAmountDto line;
+        if (format == InventoryImportFormat.NDJSON) {
+            line = lineReader.readValue(text);
+        } else {
+            String[] columns = text.split(",", -1);
+            if (columns.length < 3 || columns.length > 4) {
+                throw new IllegalArgumentException("Line should have columns warehouseId,itemName,amount[,operation]");
+            }
+            line = new WarehouseItemChangeAmountDto(Long.valueOf(unquote(columns[0])),
+                    Double.valueOf(unquote(columns[2])), ItemDto.builder().name(unquote(columns[1])).build(),
+                    columns.length == 4 ? Operation.valueOf(unquote(columns[3]).toUpperCase()) : null);
+        }
+        if (line.getOperation() == null) {
+            line.setOperation(Operation.PUT);
+        }
+        return line;
+    }
+
+    private String validate(final WarehouseItemChangeAmountDto line) {
+        Set<ConstraintViolation<WarehouseItemChangeAmountDto>> violations = validator.validate(line);
+        return violations.isEmpty() ? null : violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private static boolean isCsvHeader(final String text) {
+        return text.trim().toLowerCase().startsWith("warehouseid");
+    }
+
+    private static String unquote(final String column) {
+        String value = column.trim();
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private static Counter lineCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("inventory.import.lines")
+                .description("Inventory import lines by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private final class Chunk {
+
+        private final int index;
+        private final long startedAt;
+        private final List<WarehouseItemChangeAmountDto> lines = new ArrayList<>();
+        private final List<Long> lineNumbers = new ArrayList<>();
+        private final List<StockAdjustmentResultDto> rejections = new ArrayList<>();
+        private long firstLine;
+        private long lastLine;
+
+        private Chunk(final int index, final long startedAt) {
+            this.index = index;
+            this.startedAt = startedAt;
+        }
+
+        private void add(final long lineNumber, final String text, final InventoryImportFormat format) {
+            if (size() == 0) {
+                firstLine = lineNumber;
+            }
+            lastLine = lineNumber;
+            String message;
+            WarehouseItemChangeAmountDto line = null;
+            try {
+                line = parse(text, format);
+                message = validate(line);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                message = "Line can't be parsed: " + e.getMessage();
+            }
+            if (message == null) {
+                lines.add(line);
+                lineNumbers.add(lineNumber);
+            } else {
+                rejections.add(StockAdjustmentResultDto.builder()
+                        .line(lineNumber)
+                        .warehouseId(line != null ? line.getWarehouseId() : null)
+                        .itemName(line != null && line.getItem() != null ? line.getItem().getName() : null)
+                        .status(StockAdjustmentStatus.INVALID)
+                        .message(message)
+                        .build());
+            }
+        }
+
+        private int size() {
+            return lines.size() + rejections.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded name to id map of items, so names coming from the API resolve through the second-level cache
+ * instead of a query. Only existing items are cached, so creating an item needs no invalidation, and a
+ * cached id is only trusted if the item it loads still has that name, so an entry that raced with a
+ * rename or deletion is dropped on its next use.
+ */
+@Component
+public class ItemNameCache {
+
+    private final ItemRepository itemRepository;
+    private final Cache<String, Long> idsByName;
+
+    public ItemNameCache(final ItemRepository itemRepository, final MeterRegistry meterRegistry,
+                         @Value("${items.name-cache.maximum-size:10000}") final long maximumSize) {
+        this.itemRepository = itemRepository;
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "items.name");
+    }
+
+    public Optional<Item> findByName(final String name) {
+        Optional<Item> cachedItem = findCached(name);
+        if (cachedItem.isPresent()) {
+            return cachedItem;
+        }
+        Optional<Item> item = itemRepository.readByName(name);
+        item.ifPresent(foundItem -> idsByName.put(name, foundItem.getId()));
+        return item;
+    }
+
+    public Map<String, Item> findAllByName(final Collection<String> names) {
+        Map<String, Item> itemsByName = new HashMap<>();
+        List<String> missingNames = new ArrayList<>();
+        for (String name : names) {
+            findCached(name).ifPresentOrElse(item -> itemsByName.put(name, item), () -> missingNames.add(name));
+        }
+        if (!missingNames.isEmpty()) {
+            for (Item item : itemRepository.findByNameIn(missingNames)) {
+                itemsByName.put(item.getName(), item);
+                idsByName.put(item.getName(), item.getId());
+            }
+        }
+        return itemsByName;
+    }
+
+    /**
+     * Drops the name now and again after commit, so a lookup that read the old row meanwhile can't leave it behind.
+     */
+    public void evict(final String name) {
+        idsByName.invalidate(name);
+        TransactionHooks.afterCommit(() -> idsByName.invalidate(name));
+    }
+
+    private Optional<Item> findCached(final String name) {
+        Long id = idsByName.getIfPresent(name);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Item> item = itemRepository.findById(id).filter(foundItem -> foundItem.getName().equals(name));
+        if (item.isEmpty()) {
+            idsByName.invalidate(name);
+        }
+        return item;
+    }
+
+}
@@ -1,10 +1,11 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.ItemDto;
 import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
 import com.itechart.orderplanningproblem.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -17,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class ItemService {
 
     private final ItemRepository itemRepository;
-    private final ObjectMapper objectMapper;
+    private final ItemMapper itemMapper;
+    private final ItemNameCache itemNameCache;
+    private final ReservationService reservationService;
 
     private static final String ITEM_NAME_SHOULD_BE_UNIQUE_LITERAL = "Item with such name already exists. " +
             "Item name should be unique!";
@@ -25,9 +28,9 @@ public class ItemService {
     @Transactional
     public ItemDto create(final ItemDto itemDto) throws UnprocessableEntityException {
         checkInDbByName(itemDto.getName());
-        Item itemFromDto = objectMapper.convertValue(itemDto, Item.class);
+        Item itemFromDto = itemMapper.toEntity(itemDto);
         Item createdItem = itemRepository.save(itemFromDto);
-        return objectMapper.convertValue(createdItem, ItemDto.class);
+        return itemMapper.toDto(createdItem);
     }
 
     @Transactional
@@ -36,24 +39,34 @@ public class ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item with id = " + id + " doesn't exist"));
         checkInDbByName(newName);
+        itemNameCache.evict(item.getName());
         item.setName(newName);
         Item savedItem = itemRepository.save(item);
-        return objectMapper.convertValue(savedItem, ItemDto.class);
+        return itemMapper.toDto(savedItem);
     }
 
     public ItemDto readById(final Long id) throws ResourceNotFoundException {
-        return itemRepository.findById(id).map(item -> objectMapper.convertValue(item, ItemDto.class))
+        return itemRepository.findById(id).map(itemMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Item with id = " + id + " doesn't exist"));
     }
 
     public Page<ItemDto> readPage(Pageable pageable) {
         return itemRepository.findAll(pageable)
-                .map(item -> objectMapper.convertValue(item, ItemDto.class));
+                .map(itemMapper::toDto);
+    }
+
+    public CursorPageDto<ItemDto> readCursorPage(final String cursor, final int size) {
+        return CursorPages.toPage(itemRepository.findByIdLessThanOrderByIdDesc(CursorPages.decode(cursor),
+                CursorPages.limit(size)), size, Item::getId, itemMapper::toDto);
     }
 
     @Transactional
     public void deleteById(final Long id) {
-        itemRepository.findById(id).ifPresent(item -> itemRepository.deleteById(id));
+        itemRepository.findById(id).ifPresent(item -> {
+            reservationService.releaseByItemId(id);
+            itemRepository.deleteById(id);
+            itemNameCache.evict(item.getName());
+        });
     }
 
     private void checkInDbByName(final String itemName) throws UnprocessableEntityException {
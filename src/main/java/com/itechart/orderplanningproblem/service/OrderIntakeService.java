@@ -0,0 +1,258 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.OrderTicketDto;
+import com.itechart.orderplanningproblem.dto.OrderTicketStatus;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Accepts orders into a bounded queue and allocates them on a single worker thread in micro-batches,
+ * closed either by size or by the time the first order of the batch has waited. Every order of a batch is
+ * allocated like a synchronous one, from a single warehouse picked by the configured allocation strategy,
+ * unless orders.async.split is set, in which case the batch is solved as a whole and an order may be split
+ * across several warehouses that aren't necessarily the nearest.
+ */
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final boolean split;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final long ticketTtlNanos;
+    private final BlockingQueue<OrderTicket> queue;
+    private final Map<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+    // orders are queued and the intake is stopped under it, so the final drain sees every accepted order
+    private final Object intakeLock = new Object();
+    private final DistributionSummary batchSize;
+    private final Timer batchDuration;
+    private final Timer latency;
+    private ExecutorService worker;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private long lastEviction = System.nanoTime();
+
+    public OrderIntakeService(final OrderService orderService, final MeterRegistry meterRegistry,
+                              @Value("${orders.async.enabled:false}") final boolean enabled,
+                              @Value("${orders.async.queue-capacity:10000}") final int queueCapacity,
+                              @Value("${orders.async.max-batch-size:500}") final int maxBatchSize,
+                              @Value("${orders.async.max-batch-delay-ms:50}") final long maxBatchDelayMs,
+                              @Value("${orders.async.ticket-ttl-ms:600000}") final long ticketTtlMs,
+                              @Value("${orders.async.split:false}") final boolean split) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.split = split;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+        this.ticketTtlNanos = TimeUnit.MILLISECONDS.toNanos(ticketTtlMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size)
+                .description("Orders waiting for allocation")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("orders.intake.batch.size")
+                .description("Orders allocated per micro-batch")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("orders.intake.batch.duration")
+                .description("Time to allocate one micro-batch")
+                .register(meterRegistry);
+        this.latency = Timer.builder("orders.intake.latency")
+                .description("Time from accepting an order to its final status")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            running = true;
+            worker = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "order-allocation-worker"));
+            worker.submit(this::drain);
+        }
+    }
+
+    /**
+     * Lets the worker finish the batch in progress and fails the orders still queued, so no accepted ticket
+     * is left without a final status.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        synchronized (intakeLock) {
+            stopped = true;
+        }
+        running = false;
+        if (worker != null) {
+            worker.shutdown();
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                worker.shutdownNow();
+                worker.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        }
+        List<OrderTicket> unallocated = new ArrayList<>();
+        queue.drainTo(unallocated);
+        for (OrderTicket ticket : unallocated) {
+            complete(ticket, OrderTicketStatus.FAILED, Collections.emptyList(),
+                    "Order intake stopped before the order was allocated, please resubmit!");
+        }
+    }
+
+    public OrderTicketDto submit(final CreateOrderDto createOrderDto) {
+        if (!enabled) {
+            throw new ServiceUnavailableException("Asynchronous order intake is disabled!");
+        }
+        OrderTicket ticket = new OrderTicket(UUID.randomUUID().toString(), createOrderDto);
+        synchronized (intakeLock) {
+            if (stopped) {
+                throw new ServiceUnavailableException("Asynchronous order intake is stopping, please retry later!");
+            }
+            tickets.put(ticket.ticketId, ticket);
+            if (!queue.offer(ticket)) {
+                tickets.remove(ticket.ticketId);
+                throw new ServiceUnavailableException("Order queue is full, please retry later!");
+            }
+        }
+        return ticket.snapshot();
+    }
+
+    public OrderTicketDto readTicket(final String ticketId) throws ResourceNotFoundException {
+        return findTicket(ticketId).snapshot();
+    }
+
+    public CompletableFuture<OrderTicketDto> awaitTicket(final String ticketId, final Duration timeout)
+            throws ResourceNotFoundException {
+        OrderTicket ticket = findTicket(ticketId);
+        return ticket.result.copy().completeOnTimeout(ticket.snapshot(), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private OrderTicket findTicket(final String ticketId) throws ResourceNotFoundException {
+        OrderTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Order ticket with id = " + ticketId + " doesn't exist");
+        }
+        return ticket;
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                List<OrderTicket> batch = takeBatch();
+                if (!batch.isEmpty()) {
+                    batchSize.record(batch.size());
+                    batchDuration.record(() -> allocate(batch));
+                }
+                evictExpiredTickets();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order allocation worker failed to process a batch", e);
+            }
+        }
+    }
+
+    private List<OrderTicket> takeBatch() throws InterruptedException {
+        List<OrderTicket> batch = new ArrayList<>();
+        OrderTicket first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            OrderTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void allocate(final List<OrderTicket> batch) {
+        try {
+            List<CreateOrderDto> createOrderDtos = batch.stream()
+                    .map(ticket -> ticket.createOrderDto)
+                    .collect(Collectors.toList());
+            List<List<OrderDto>> allocatedOrders = split
+                    ? orderService.createBatchPerOrder(createOrderDtos)
+                    : orderService.createEach(createOrderDtos).stream()
+                    .map(Collections::singletonList)
+                    .collect(Collectors.toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), OrderTicketStatus.COMPLETED, allocatedOrders.get(i), null);
+            }
+        } catch (ResourceNotFoundException | RuntimeException batchException) {
+            // the batch is all-or-nothing, so find out which orders can't be served by placing them one by one
+            for (OrderTicket ticket : batch) {
+                try {
+                    complete(ticket, OrderTicketStatus.COMPLETED,
+                            Collections.singletonList(orderService.create(ticket.createOrderDto)), null);
+                } catch (ResourceNotFoundException | RuntimeException e) {
+                    complete(ticket, OrderTicketStatus.FAILED, Collections.emptyList(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void complete(final OrderTicket ticket, final OrderTicketStatus status,
+                          final List<OrderDto> orders, final String message) {
+        latency.record(System.nanoTime() - ticket.acceptedAt, TimeUnit.NANOSECONDS);
+        ticket.result.complete(new OrderTicketDto(ticket.ticketId, status, orders, message));
+    }
+
+    private void evictExpiredTickets() {
+        long now = System.nanoTime();
+        if (now - lastEviction > TimeUnit.SECONDS.toNanos(1)) {
+            tickets.values().removeIf(ticket -> ticket.result.isDone() && now - ticket.acceptedAt > ticketTtlNanos);
+            lastEviction = now;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class OrderTicket {
+
+        private final String ticketId;
+        private final CreateOrderDto createOrderDto;
+        private final long acceptedAt = System.nanoTime();
+        private final CompletableFuture<OrderTicketDto> result = new CompletableFuture<>();
+
+        private OrderTicketDto snapshot() {
+            return result.getNow(new OrderTicketDto(ticketId, OrderTicketStatus.ACCEPTED, new ArrayList<>(), null));
+        }
+
+    }
+
+}
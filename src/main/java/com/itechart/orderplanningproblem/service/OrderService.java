@@ -1,39 +1,58 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.OrderDto;
 import com.itechart.orderplanningproblem.entity.Customer;
-import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.entity.Order;
 import com.itechart.orderplanningproblem.entity.Warehouse;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.OrderMapper;
 import com.itechart.orderplanningproblem.repository.CustomerRepository;
-import com.itechart.orderplanningproblem.repository.DistanceRepository;
-import com.itechart.orderplanningproblem.repository.ItemRepository;
 import com.itechart.orderplanningproblem.repository.OrderRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseItemStock;
+import com.itechart.orderplanningproblem.service.allocation.AllocationStrategies;
+import com.itechart.orderplanningproblem.service.allocation.AllocationStrategy;
+import com.itechart.orderplanningproblem.service.allocation.TransportationSolver;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ItemRepository itemRepository;
+    private final ItemNameCache itemNameCache;
     private final CustomerRepository customerRepository;
     private final WarehouseRepository warehouseRepository;
-    private final DistanceRepository distanceRepository;
-    private final ObjectMapper objectMapper;
+    private final WarehouseLocator warehouseLocator;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+    private final AllocationStrategies allocationStrategies;
+    private final OrderMapper orderMapper;
 
     private static final String NO_SUCH_ITEM_LITERAL = "There is no item with name ";
     private static final String NO_SUCH_CUSTOMER_LITERAL = "There is no customer with id ";
@@ -41,21 +60,129 @@ public class OrderService {
     @Transactional
     public OrderDto create(final CreateOrderDto createOrderDto)
             throws UnprocessableEntityException, ResourceNotFoundException {
-        Order orderToCreate = validateOrder(createOrderDto);
-        orderItemFromWarehouse(orderToCreate);
-        Order createdOrder = orderRepository.save(orderToCreate);
-        return objectMapper.convertValue(createdOrder, OrderDto.class);
+        return create(createOrderDto, null);
+    }
+
+    /**
+     * @param allocationStrategy name of the allocation strategy, null for the configured one
+     */
+    @Transactional
+    public OrderDto create(final CreateOrderDto createOrderDto, final String allocationStrategy)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        Order createdOrder = orderRepository.save(allocate(createOrderDto, allocationStrategy));
+        return orderMapper.toDto(createdOrder);
+    }
+
+    /**
+     * Takes the stock of the order from the warehouse picked by the configured allocation strategy and returns
+     * the order unsaved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Order allocate(final CreateOrderDto createOrderDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return allocate(createOrderDto, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Order allocate(final CreateOrderDto createOrderDto, final String allocationStrategy)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        AllocationStrategy strategy = allocationStrategies.get(allocationStrategy);
+        Order order = validateOrder(createOrderDto);
+        orderItemFromWarehouse(order, strategy);
+        return order;
+    }
+
+    /**
+     * Covers the order from as many warehouses as it takes, nearest first, and returns one order line
+     * per source warehouse.
+     */
+    @Transactional
+    public List<OrderDto> createSplit(final CreateOrderDto createOrderDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        Order order = validateOrder(createOrderDto);
+        List<Order> lines = orderRepository.saveAll(orderItemFromWarehousesNearestFirst(order));
+        return lines.stream()
+                .map(orderMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Allocates every order the way {@link #create(CreateOrderDto)} does, all in one transaction.
+     */
+    @Transactional
+    public List<OrderDto> createEach(final List<CreateOrderDto> createOrderDtos)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        List<Order> orders = new ArrayList<>();
+        for (CreateOrderDto createOrderDto : createOrderDtos) {
+            orders.add(allocate(createOrderDto));
+        }
+        return orderRepository.saveAll(orders).stream()
+                .map(orderMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public List<OrderDto> createBatch(final List<CreateOrderDto> createOrderDtos)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return createBatchPerOrder(createOrderDtos).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public List<List<OrderDto>> createBatchPerOrder(final List<CreateOrderDto> createOrderDtos)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        List<Order> orders = validateOrders(createOrderDtos);
+        Map<Long, List<Integer>> positionsByItemId = IntStream.range(0, orders.size()).boxed()
+                .collect(Collectors.groupingBy(position -> orders.get(position).getItem().getId(),
+                        LinkedHashMap::new, Collectors.toList()));
+        List<List<Order>> allocatedOrders = new ArrayList<>(Collections.nCopies(orders.size(), null));
+        for (List<Integer> positions : positionsByItemId.values()) {
+            List<List<Order>> allocatedParts = orderItemsFromWarehouses(positions.stream()
+                    .map(orders::get)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < positions.size(); i++) {
+                allocatedOrders.set(positions.get(i), allocatedParts.get(i));
+            }
+        }
+        orderRepository.saveAll(allocatedOrders.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+        return allocatedOrders.stream()
+                .map(parts -> parts.stream()
+                        .map(orderMapper::toDto)
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
     }
 
     public OrderDto readById(final Long id) throws ResourceNotFoundException {
-        return orderRepository.findById(id).map(
-                order -> objectMapper.convertValue(order, OrderDto.class))
+        return orderRepository.findById(id).map(orderMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Order with id = " + id + " doesn't exist"));
     }
 
+    @Transactional(readOnly = true)
     public Page<OrderDto> readPage(Pageable pageable) {
-        return orderRepository.findAll(pageable)
-                .map(order -> objectMapper.convertValue(order, OrderDto.class));
+        Page<Order> orders = orderRepository.findAll(pageable);
+        fetchWarehouseItems(orders.getContent());
+        return orders.map(orderMapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> readCursorPage(final String cursor, final int size) {
+        List<Order> orders = orderRepository.findByIdLessThanOrderByIdDesc(CursorPages.decode(cursor),
+                CursorPages.limit(size));
+        fetchWarehouseItems(orders);
+        return CursorPages.toPage(orders, size, Order::getId, orderMapper::toDto);
+    }
+
+    private void fetchWarehouseItems(final List<Order> orders) {
+        Set<Long> warehouseIds = orders.stream()
+                .filter(order -> order.getWarehouse() != null)
+                .map(order -> order.getWarehouse().getId())
+                .collect(Collectors.toSet());
+        if (!warehouseIds.isEmpty()) {
+            warehouseRepository.findWithItemsByIdIn(warehouseIds);
+        }
     }
 
     @Transactional
@@ -63,9 +190,38 @@ public class OrderService {
         orderRepository.findById(id).ifPresent(order -> orderRepository.deleteById(id));
     }
 
+    @Transactional
+    public void cancel(final Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        cancelBatch(List.of(id));
+    }
+
+    /**
+     * Deletes the orders and puts their amounts back into the warehouses they were taken from. The delete
+     * must remove every order, otherwise a concurrent cancellation got some of them first and the whole
+     * batch rolls back, so stock is never returned twice.
+     */
+    @Transactional
+    public void cancelBatch(final List<Long> ids) throws UnprocessableEntityException, ResourceNotFoundException {
+        Set<Long> orderIds = new HashSet<>(ids);
+        List<WarehouseItemStock> cancelled = orderRepository.findStockByIdIn(orderIds);
+        if (cancelled.size() != orderIds.size()) {
+            throw new ResourceNotFoundException(orderIds.size() == 1
+                    ? "Order with id = " + ids.get(0) + " doesn't exist"
+                    : "Some of orders with ids " + orderIds + " don't exist");
+        }
+        if (orderRepository.deleteByIdIn(orderIds) != orderIds.size()) {
+            throw new UnprocessableEntityException("Some of orders with ids " + orderIds
+                    + " have been cancelled concurrently, please retry!");
+        }
+        stockService.increaseAmounts(cancelled.stream()
+                .collect(Collectors.groupingBy(WarehouseItemStock::getItemId,
+                        Collectors.groupingBy(WarehouseItemStock::getWarehouseId,
+                                Collectors.summingDouble(WarehouseItemStock::getAmount)))));
+    }
+
     private Order validateOrder(final CreateOrderDto createOrderDto) throws ResourceNotFoundException {
         String itemName = createOrderDto.getItem().getName();
-        Item itemFromDbByName = itemRepository.readByName(itemName)
+        Item itemFromDbByName = itemNameCache.findByName(itemName)
                 .orElseThrow(() -> new ResourceNotFoundException(NO_SUCH_ITEM_LITERAL + itemName));
         Customer customerFromDbById = customerRepository.findById(createOrderDto.getCustomerId())
                 .orElseThrow(() -> new ResourceNotFoundException(NO_SUCH_CUSTOMER_LITERAL
@@ -74,34 +230,147 @@ public class OrderService {
                 itemFromDbByName, customerFromDbById, null);
     }
 
-    private void orderItemFromWarehouse(Order order) throws UnprocessableEntityException {
-        List<Warehouse> sortedWarehouses = warehouseRepository.findWarehouseForCustomer(order.getCustomer().getId());
-        AtomicBoolean processed = new AtomicBoolean(false);
-        for (Warehouse warehouse: sortedWarehouses) {
-            warehouse.getItems()
-                    .stream()
-                    .filter(item -> item.getItem().equals(order.getItem()) && item.getAmount() >= order.getAmount())
-                    .findFirst()
-                    .ifPresent(warehouseItem -> {
-                        warehouseItem.setAmount(warehouseItem.getAmount() - order.getAmount());
-                        if (warehouseItem.getAmount() == 0) {
-                            warehouse.getItems().remove(warehouseItem);
-                        }
-                        warehouseRepository.save(warehouse);
-                        order.setWarehouse(warehouse);
-                        Distance distance = distanceRepository
-                                .findDistanceByCustomerIdAndWarehouseId(order.getCustomer().getId(), warehouse.getId());
-                        order.setDistance(distance.getDistanceValue());
-                        processed.set(true);
-                    });
-            if (processed.get()) {
-                break;
+    private List<Order> validateOrders(final List<CreateOrderDto> createOrderDtos) throws ResourceNotFoundException {
+        Set<String> itemNames = createOrderDtos.stream()
+                .map(createOrderDto -> createOrderDto.getItem().getName())
+                .collect(Collectors.toSet());
+        Set<Long> customerIds = createOrderDtos.stream()
+                .map(CreateOrderDto::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<String, Item> itemsByName = itemNameCache.findAllByName(itemNames);
+        Map<Long, Customer> customersById = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        List<Order> orders = new ArrayList<>();
+        for (CreateOrderDto createOrderDto : createOrderDtos) {
+            Item item = itemsByName.get(createOrderDto.getItem().getName());
+            if (item == null) {
+                throw new ResourceNotFoundException(NO_SUCH_ITEM_LITERAL + createOrderDto.getItem().getName());
+            }
+            Customer customer = customersById.get(createOrderDto.getCustomerId());
+            if (customer == null) {
+                throw new ResourceNotFoundException(NO_SUCH_CUSTOMER_LITERAL + createOrderDto.getCustomerId());
+            }
+            orders.add(new Order(null, createOrderDto.getAmount(), null, item, customer, null));
+        }
+        return orders;
+    }
+
+    private List<List<Order>> orderItemsFromWarehouses(final List<Order> ordersOfItem)
+            throws UnprocessableEntityException {
+        Item item = ordersOfItem.get(0).getItem();
+        Map<Long, Double> stock = new HashMap<>(stockIndex.findStock(item.getId()));
+        List<Long> warehouseIds = new ArrayList<>(stock.keySet());
+        Set<Customer> customers = ordersOfItem.stream()
+                .map(Order::getCustomer)
+                .collect(Collectors.toSet());
+        Map<Long, Map<Long, Double>> distances = warehouseLocator.findDistances(customers, warehouseIds);
+
+        double[] supply = warehouseIds.stream().mapToDouble(stock::get).toArray();
+        double[] demand = ordersOfItem.stream().mapToDouble(Order::getAmount).toArray();
+        double[][] routeCost = new double[warehouseIds.size()][ordersOfItem.size()];
+        for (int i = 0; i < warehouseIds.size(); i++) {
+            for (int j = 0; j < ordersOfItem.size(); j++) {
+                routeCost[i][j] = distances.getOrDefault(ordersOfItem.get(j).getCustomer().getId(),
+                        Collections.emptyMap()).getOrDefault(warehouseIds.get(i), Double.POSITIVE_INFINITY);
             }
         }
-        if (!processed.get()){
+        double[][] shipments = TransportationSolver.solve(supply, demand, routeCost);
+
+        List<Long> unservedCustomerIds = new ArrayList<>();
+        for (int j = 0; j < ordersOfItem.size(); j++) {
+            double shipped = 0;
+            for (int i = 0; i < warehouseIds.size(); i++) {
+                shipped += shipments[i][j];
+            }
+            if (shipped < demand[j] - TransportationSolver.EPSILON) {
+                unservedCustomerIds.add(ordersOfItem.get(j).getCustomer().getId());
+            }
+        }
+        if (!unservedCustomerIds.isEmpty()) {
+            throw new UnprocessableEntityException("There is not enough " + item.getName()
+                    + " in warehouses to fulfill orders of customers with ids " + unservedCustomerIds + "!");
+        }
+
+        List<Long> usedWarehouseIds = new ArrayList<>();
+        for (int i = 0; i < warehouseIds.size(); i++) {
+            double shippedFromWarehouse = Arrays.stream(shipments[i]).sum();
+            if (shippedFromWarehouse > TransportationSolver.EPSILON) {
+                if (!stockService.decreaseAmount(warehouseIds.get(i), item.getId(), shippedFromWarehouse)) {
+                    throw new UnprocessableEntityException("Stock of warehouse with id " + warehouseIds.get(i)
+                            + " has changed while orders were allocated, please retry!");
+                }
+                usedWarehouseIds.add(warehouseIds.get(i));
+            }
+        }
+        Map<Long, Warehouse> warehousesById = warehouseRepository.findWithItemsByIdIn(usedWarehouseIds).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        List<List<Order>> allocatedOrders = new ArrayList<>();
+        for (int j = 0; j < ordersOfItem.size(); j++) {
+            List<Order> allocatedParts = new ArrayList<>();
+            for (int i = 0; i < warehouseIds.size(); i++) {
+                if (shipments[i][j] > TransportationSolver.EPSILON) {
+                    allocatedParts.add(new Order(null, shipments[i][j], routeCost[i][j], item,
+                            ordersOfItem.get(j).getCustomer(), warehousesById.get(warehouseIds.get(i))));
+                }
+            }
+            allocatedOrders.add(allocatedParts);
+        }
+        return allocatedOrders;
+    }
+
+    /**
+     * Plans the split against one read of the stock and applies it with one batch of conditional decrements,
+     * so a warehouse that lost its stock meanwhile fails the whole order instead of being retried.
+     */
+    private List<Order> orderItemFromWarehousesNearestFirst(final Order order) throws UnprocessableEntityException {
+        Item item = order.getItem();
+        Map<Long, Double> stock = new HashMap<>(stockIndex.findStock(item.getId()));
+        Map<Long, Double> amountsByWarehouseId = new LinkedHashMap<>();
+        Map<Long, Double> distancesByWarehouseId = new HashMap<>();
+        double remaining = order.getAmount();
+        int unvisitedStockedWarehouses = stock.size();
+        Iterator<WarehouseDistance> candidates = stock.isEmpty()
+                ? Collections.emptyIterator()
+                : warehouseLocator.findNearestWarehouses(order.getCustomer());
+        while (remaining > TransportationSolver.EPSILON && unvisitedStockedWarehouses > 0 && candidates.hasNext()) {
+            WarehouseDistance candidate = candidates.next();
+            Double available = stock.get(candidate.getWarehouseId());
+            if (available != null) {
+                unvisitedStockedWarehouses--;
+                if (available > TransportationSolver.EPSILON) {
+                    double taken = Math.min(available, remaining);
+                    amountsByWarehouseId.put(candidate.getWarehouseId(), taken);
+                    distancesByWarehouseId.put(candidate.getWarehouseId(), candidate.getDistanceValue());
+                    remaining -= taken;
+                }
+            }
+        }
+        if (remaining > TransportationSolver.EPSILON) {
+            throw new UnprocessableEntityException("There is not enough " + item.getName()
+                    + " in warehouses to fulfill the order!");
+        }
+        if (!stockService.decreaseAmounts(item.getId(), amountsByWarehouseId)) {
+            throw new UnprocessableEntityException("Stock of " + item.getName()
+                    + " has changed while the order was allocated, please retry!");
+        }
+        Map<Long, Warehouse> warehousesById = warehouseRepository.findWithItemsByIdIn(amountsByWarehouseId.keySet())
+                .stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        return amountsByWarehouseId.entrySet().stream()
+                .map(amount -> new Order(null, amount.getValue(), distancesByWarehouseId.get(amount.getKey()), item,
+                        order.getCustomer(), warehousesById.get(amount.getKey())))
+                .collect(Collectors.toList());
+    }
+
+    private void orderItemFromWarehouse(final Order order, final AllocationStrategy allocationStrategy)
+            throws UnprocessableEntityException {
+        WarehouseDistance allocatedFrom = allocationStrategy.allocate(order);
+        if (allocatedFrom == null) {
             throw new UnprocessableEntityException("There is not any warehouse" +
                     " that contains that item with such amount!");
         }
+        order.setWarehouse(warehouseRepository.findWithItemsById(allocatedFrom.getWarehouseId()).orElseThrow());
+        order.setDistance(allocatedFrom.getDistanceValue());
     }
 
 }
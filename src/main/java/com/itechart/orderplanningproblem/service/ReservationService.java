@@ -0,0 +1,245 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CreateReservationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.ReservationDto;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.entity.Reservation;
+import com.itechart.orderplanningproblem.entity.ReservationStatus;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.OrderMapper;
+import com.itechart.orderplanningproblem.mapper.ReservationMapper;
+import com.itechart.orderplanningproblem.repository.OrderRepository;
+import com.itechart.orderplanningproblem.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Two-phase stock allocation: a reservation takes the stock from the nearest warehouse that has it right away
+ * and holds it until it is confirmed into an order, released or expired. A sweeper thread expires due
+ * reservations in batches, each read with one query over the (status, expires_at) index, and puts their
+ * stock back with one batch of updates. Deleting a warehouse, customer or item releases its active reservations
+ * first, as their foreign keys restrict deletion.
+ */
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final StockService stockService;
+    private final ReservationMapper reservationMapper;
+    private final OrderMapper orderMapper;
+    private final TransactionTemplate sweepTransaction;
+    private final Counter expiredReservations;
+    private final Duration defaultTtl;
+    private final boolean sweeperEnabled;
+    private final long sweepIntervalMs;
+    private final int sweepBatchSize;
+    private ScheduledExecutorService sweeper;
+
+    public ReservationService(final ReservationRepository reservationRepository, final OrderService orderService,
+                              final OrderRepository orderRepository, final StockService stockService,
+                              final ReservationMapper reservationMapper, final OrderMapper orderMapper,
+                              final PlatformTransactionManager transactionManager,
+                              final MeterRegistry meterRegistry,
+                              @Value("${reservations.default-ttl-seconds:900}") final long defaultTtlSeconds,
+                              @Value("${reservations.sweeper.enabled:true}") final boolean sweeperEnabled,
+                              @Value("${reservations.sweeper.interval-ms:1000}") final long sweepIntervalMs,
+                              @Value("${reservations.sweeper.batch-size:1000}") final int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.stockService = stockService;
+        this.reservationMapper = reservationMapper;
+        this.orderMapper = orderMapper;
+        this.sweepTransaction = new TransactionTemplate(transactionManager);
+        this.expiredReservations = Counter.builder("reservations.expired")
+                .description("Reservations expired by the sweeper")
+                .register(meterRegistry);
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.sweeperEnabled = sweeperEnabled;
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (sweeperEnabled) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(
+                    runnable -> new Thread(runnable, "reservation-sweeper"));
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Transactional
+    public ReservationDto reserve(final CreateReservationDto createReservationDto)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        Order allocated = orderService.allocate(new CreateOrderDto(createReservationDto.getAmount(),
+                createReservationDto.getItem(), createReservationDto.getCustomerId()));
+        Duration ttl = createReservationDto.getTtlSeconds() == null
+                ? defaultTtl : Duration.ofSeconds(createReservationDto.getTtlSeconds());
+        Reservation reservation = reservationRepository.save(new Reservation(null, allocated.getAmount(),
+                allocated.getDistance(), ReservationStatus.ACTIVE, Instant.now().plus(ttl), allocated.getItem(),
+                allocated.getCustomer(), allocated.getWarehouse(), null));
+        return reservationMapper.toDto(reservation);
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationDto readById(final Long id) throws ResourceNotFoundException {
+        return reservationMapper.toDto(reservationRepository.findById(id)
+                .orElseThrow(() -> reservationNotFound(id)));
+    }
+
+    @Transactional
+    public OrderDto confirm(final Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        Reservation reservation = findActiveForUpdate(id);
+        if (!reservation.getExpiresAt().isAfter(Instant.now())) {
+            throw new UnprocessableEntityException("Reservation with id = " + id + " has expired!");
+        }
+        Order order = orderRepository.save(new Order(null, reservation.getAmount(), reservation.getDistance(),
+                reservation.getItem(), reservation.getCustomer(), reservation.getWarehouse()));
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setOrder(order);
+        return orderMapper.toDto(order);
+    }
+
+    @Transactional
+    public ReservationDto release(final Long id) throws UnprocessableEntityException, ResourceNotFoundException {
+        Reservation reservation = findActiveForUpdate(id);
+        stockService.increaseAmount(reservation.getWarehouse().getId(), reservation.getItem().getId(),
+                reservation.getAmount());
+        reservation.setStatus(ReservationStatus.RELEASED);
+        return reservationMapper.toDto(reservation);
+    }
+
+    /**
+     * Expires every reservation due now, one batch per transaction.
+     *
+     * @return number of expired reservations
+     */
+    public int expireDueReservations() {
+        int expired = 0;
+        Integer batch;
+        do {
+            batch = sweepTransaction.execute(status -> expireBatch(Instant.now()));
+            expired += batch;
+        } while (batch == sweepBatchSize);
+        return expired;
+    }
+
+    private void sweep() {
+        try {
+            int expired = expireDueReservations();
+            if (expired > 0) {
+                log.info("Expired {} reservations", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reservation sweep failed", e);
+        }
+    }
+
+    private int expireBatch(final Instant now) {
+        List<Reservation> due = reservationRepository.findDueForUpdate(ReservationStatus.ACTIVE, now,
+                PageRequest.of(0, sweepBatchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        stockService.increaseAmounts(amountsByItemId(due));
+        reservationRepository.updateStatus(due.stream()
+                .map(Reservation::getId)
+                .collect(Collectors.toList()), ReservationStatus.EXPIRED);
+        expiredReservations.increment(due.size());
+        return due.size();
+    }
+
+    /**
+     * Clears the reservations of a warehouse being deleted. The stock held by active ones goes away with the
+     * warehouse, so nothing is put back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseByWarehouseId(final Long warehouseId) {
+        reservationRepository.deleteWithoutOrderByWarehouseId(warehouseId);
+    }
+
+    /**
+     * Puts back the stock held by the active reservations of a customer being deleted and clears its reservations.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseByCustomerId(final Long customerId) {
+        releaseAll(reservationRepository.findByCustomerIdAndStatus(customerId, ReservationStatus.ACTIVE));
+        reservationRepository.deleteWithoutOrderByCustomerId(customerId);
+    }
+
+    /**
+     * Puts back the stock held by the active reservations of an item being deleted and clears its reservations.
+     * Stock put back keeps the item in a warehouse, which blocks its deletion like any other stocked item.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseByItemId(final Long itemId) {
+        releaseAll(reservationRepository.findByItemIdAndStatus(itemId, ReservationStatus.ACTIVE));
+        reservationRepository.deleteWithoutOrderByItemId(itemId);
+    }
+
+    private void releaseAll(final List<Reservation> active) {
+        if (!active.isEmpty()) {
+            stockService.increaseAmounts(amountsByItemId(active));
+        }
+    }
+
+    /**
+     * @return amounts held by the reservations keyed by item id and then by warehouse id
+     */
+    private static Map<Long, Map<Long, Double>> amountsByItemId(final List<Reservation> reservations) {
+        return reservations.stream()
+                .collect(Collectors.groupingBy(reservation -> reservation.getItem().getId(),
+                        Collectors.groupingBy(reservation -> reservation.getWarehouse().getId(),
+                                Collectors.summingDouble(Reservation::getAmount))));
+    }
+
+    private Reservation findActiveForUpdate(final Long id)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        Reservation reservation = reservationRepository.findForUpdate(id)
+                .orElseThrow(() -> reservationNotFound(id));
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new UnprocessableEntityException("Reservation with id = " + id + " is "
+                    + reservation.getStatus() + " already!");
+        }
+        return reservation;
+    }
+
+    private static ResourceNotFoundException reservationNotFound(final Long id) {
+        return new ResourceNotFoundException("Reservation with id = " + id + " doesn't exist");
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentResultDto;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentStatus;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
+import com.itechart.orderplanningproblem.repository.ItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many PUT/REMOVE lines in one transaction: items and warehouses are resolved with one query each,
+ * the touched stock rows are locked with one query, and the changed rows are flushed in JDBC batches.
+ * Every line is answered on its own, a REMOVE that would go below zero is reported as a conflict and skipped.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockAdjustmentService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseItemRepository warehouseItemRepository;
+    private final ItemRepository itemRepository;
+    private final ItemNameCache itemNameCache;
+    private final ItemMapper itemMapper;
+    private final StockIndex stockIndex;
+
+    @Transactional
+    public List<StockAdjustmentResultDto> adjust(final List<WarehouseItemChangeAmountDto> lines) {
+        if (lines.stream().anyMatch(line -> line.getOperation() == null)) {
+            throw new UnprocessableEntityException("Operation must have value <PUT> or <REMOVE>!");
+        }
+        Set<Long> existingWarehouseIds = warehouseRepository.findIdsByIdIn(lines.stream()
+                .map(WarehouseItemChangeAmountDto::getWarehouseId)
+                .collect(Collectors.toSet()));
+        Map<String, Item> itemsByName = resolveItems(lines, existingWarehouseIds);
+        Map<Long, Map<Long, WarehouseItem>> stock = lockStock(existingWarehouseIds, itemsByName);
+
+        // entities hash by their mutable state, so the deltas are tracked per instance
+        Map<WarehouseItem, Double> deltas = new IdentityHashMap<>();
+        List<StockAdjustmentResultDto> results = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            WarehouseItemChangeAmountDto line = lines.get(i);
+            StockAdjustmentResultDto result = StockAdjustmentResultDto.builder()
+                    .line(i)
+                    .warehouseId(line.getWarehouseId())
+                    .itemName(line.getItem().getName())
+                    .build();
+            if (!existingWarehouseIds.contains(line.getWarehouseId())) {
+                reject(result, StockAdjustmentStatus.NOT_FOUND,
+                        "Warehouse with id = " + line.getWarehouseId() + " doesn't exist");
+            } else if (line.getOperation().equals(Operation.PUT)) {
+                put(line, itemsByName, stock, deltas, result);
+            } else {
+                remove(line, itemsByName, stock, deltas, result);
+            }
+            results.add(result);
+        }
+
+        List<WarehouseItem> emptiedItems = new ArrayList<>();
+        deltas.forEach((warehouseItem, delta) -> {
+            if (warehouseItem.getAmount() <= 0) {
+                emptiedItems.add(warehouseItem);
+            }
+            if (delta != 0) {
+                stockIndex.addAmount(warehouseItem.getItem().getId(), warehouseIdOf(warehouseItem), delta);
+            }
+        });
+        warehouseItemRepository.deleteAll(emptiedItems);
+        return results;
+    }
+
+    private Map<String, Item> resolveItems(final List<WarehouseItemChangeAmountDto> lines,
+                                           final Set<Long> existingWarehouseIds) {
+        Map<String, Item> itemsByName = new HashMap<>(itemNameCache.findAllByName(lines.stream()
+                .map(line -> line.getItem().getName())
+                .collect(Collectors.toSet())));
+        Map<String, Item> itemsToCreate = new LinkedHashMap<>();
+        for (WarehouseItemChangeAmountDto line : lines) {
+            String name = line.getItem().getName();
+            if (line.getOperation().equals(Operation.PUT) && existingWarehouseIds.contains(line.getWarehouseId())
+                    && !itemsByName.containsKey(name)) {
+                itemsToCreate.putIfAbsent(name, itemMapper.toEntity(line.getItem()));
+            }
+        }
+        for (Item item : itemRepository.saveAll(itemsToCreate.values())) {
+            itemsByName.put(item.getName(), item);
+        }
+        return itemsByName;
+    }
+
+    private Map<Long, Map<Long, WarehouseItem>> lockStock(final Set<Long> warehouseIds,
+                                                         final Map<String, Item> itemsByName) {
+        Map<Long, Map<Long, WarehouseItem>> stock = new HashMap<>();
+        if (warehouseIds.isEmpty() || itemsByName.isEmpty()) {
+            return stock;
+        }
+        Set<Long> itemIds = itemsByName.values().stream().map(Item::getId).collect(Collectors.toSet());
+        for (WarehouseItem warehouseItem : warehouseItemRepository.findForUpdate(warehouseIds, itemIds)) {
+            stock.computeIfAbsent(warehouseIdOf(warehouseItem), id -> new HashMap<>())
+                    .put(warehouseItem.getItem().getId(), warehouseItem);
+        }
+        return stock;
+    }
+
+    private void put(final WarehouseItemChangeAmountDto line, final Map<String, Item> itemsByName,
+                     final Map<Long, Map<Long, WarehouseItem>> stock, final Map<WarehouseItem, Double> deltas,
+                     final StockAdjustmentResultDto result) {
+        Item item = itemsByName.get(line.getItem().getName());
+        WarehouseItem warehouseItem = stock.computeIfAbsent(line.getWarehouseId(), id -> new HashMap<>())
+                .computeIfAbsent(item.getId(), id -> warehouseItemRepository.save(new WarehouseItem(null, 0.0,
+                        item, warehouseRepository.getOne(line.getWarehouseId()))));
+        apply(warehouseItem, line.getAmount(), deltas, result);
+    }
+
+    private void remove(final WarehouseItemChangeAmountDto line, final Map<String, Item> itemsByName,
+                        final Map<Long, Map<Long, WarehouseItem>> stock, final Map<WarehouseItem, Double> deltas,
+                        final StockAdjustmentResultDto result) {
+        Item item = itemsByName.get(line.getItem().getName());
+        if (item == null) {
+            reject(result, StockAdjustmentStatus.NOT_FOUND, "Item with such name doesn't exist");
+            return;
+        }
+        WarehouseItem warehouseItem = stock.getOrDefault(line.getWarehouseId(), Map.of()).get(item.getId());
+        if (warehouseItem == null || warehouseItem.getAmount() <= 0) {
+            reject(result, StockAdjustmentStatus.NOT_FOUND,
+                    "There is no item with such name in warehouse with id " + line.getWarehouseId());
+            return;
+        }
+        if (warehouseItem.getAmount() < line.getAmount()) {
+            reject(result, StockAdjustmentStatus.CONFLICT, "It is impossible to remove more items " +
+                    "than are in the warehouse! Current value of item with name " + item.getName()
+                    + " is " + warehouseItem.getAmount() + ".");
+            result.setAmount(warehouseItem.getAmount());
+            return;
+        }
+        apply(warehouseItem, -line.getAmount(), deltas, result);
+    }
+
+    private void apply(final WarehouseItem warehouseItem, final double delta, final Map<WarehouseItem, Double> deltas,
+                       final StockAdjustmentResultDto result) {
+        warehouseItem.setAmount(warehouseItem.getAmount() + delta);
+        deltas.merge(warehouseItem, delta, Double::sum);
+        result.setStatus(StockAdjustmentStatus.APPLIED);
+        result.setAmount(warehouseItem.getAmount());
+    }
+
+    private void reject(final StockAdjustmentResultDto result, final StockAdjustmentStatus status,
+                        final String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    private Long warehouseIdOf(final WarehouseItem warehouseItem) {
+        return warehouseItem.getWarehouse().getId();
+    }
+
+}
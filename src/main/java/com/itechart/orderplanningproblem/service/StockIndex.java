@@ -0,0 +1,75 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of warehouse stock keyed by item id, so allocation doesn't have to load warehouse aggregates.
+ * Changes are applied as deltas after the surrounding transaction commits, so concurrent commits can't overwrite
+ * each other; the database stays the source of truth for every stock decrement.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockIndex {
+
+    private final WarehouseItemRepository warehouseItemRepository;
+
+    private final Map<Long, Map<Long, Double>> stockByItemId = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        stockByItemId.clear();
+        warehouseItemRepository.findAllStock().forEach(stock ->
+                putAmount(stock.getItemId(), stock.getWarehouseId(), stock.getAmount()));
+    }
+
+    public Map<Long, Double> findStock(final Long itemId) {
+        return Collections.unmodifiableMap(stockByItemId.getOrDefault(itemId, Collections.emptyMap()));
+    }
+
+    public double getAmount(final Long itemId, final Long warehouseId) {
+        return findStock(itemId).getOrDefault(warehouseId, 0.0);
+    }
+
+    public void addAmount(final Long itemId, final Long warehouseId, final Double delta) {
+        TransactionHooks.afterCommit(() -> mergeAmount(itemId, warehouseId, delta));
+    }
+
+    public void removeWarehouse(final Long warehouseId) {
+        TransactionHooks.afterCommit(() ->
+                stockByItemId.keySet().forEach(itemId -> putAmount(itemId, warehouseId, null)));
+    }
+
+    private void putAmount(final Long itemId, final Long warehouseId, final Double amount) {
+        stockByItemId.compute(itemId, (id, stock) -> {
+            if (amount != null && amount > 0) {
+                Map<Long, Double> itemStock = stock == null ? new ConcurrentHashMap<>() : stock;
+                itemStock.put(warehouseId, amount);
+                return itemStock;
+            }
+            if (stock != null) {
+                stock.remove(warehouseId);
+            }
+            return stock == null || stock.isEmpty() ? null : stock;
+        });
+    }
+
+    private void mergeAmount(final Long itemId, final Long warehouseId, final Double delta) {
+        stockByItemId.compute(itemId, (id, stock) -> {
+            Map<Long, Double> itemStock = stock == null ? new ConcurrentHashMap<>() : stock;
+            itemStock.compute(warehouseId, (whId, amount) -> {
+                double newAmount = (amount == null ? 0.0 : amount) + delta;
+                return newAmount > 0 ? newAmount : null;
+            });
+            return itemStock.isEmpty() ? null : itemStock;
+        });
+    }
+
+}
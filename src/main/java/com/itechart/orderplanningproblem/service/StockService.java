@@ -0,0 +1,133 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private static final String INCREASE_AMOUNT_SQL = "update warehouse_item set amount = amount + ?"
+            + " where warehouse_id = ? and item_id = ?";
+    private static final String DECREASE_AMOUNT_SQL = "update warehouse_item set amount = amount - ?"
+            + " where warehouse_id = ? and item_id = ? and amount >= ?";
+
+    private final WarehouseItemRepository warehouseItemRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final StockIndex stockIndex;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean decreaseAmount(final Long warehouseId, final Long itemId, final Double amount) {
+        if (warehouseItemRepository.decreaseAmount(warehouseId, itemId, amount) == 0) {
+            return false;
+        }
+        warehouseItemRepository.deleteIfEmpty(warehouseId, itemId);
+        stockIndex.addAmount(itemId, warehouseId, -amount);
+        return true;
+    }
+
+    /**
+     * Takes one item from several warehouses with a single batch of conditional updates.
+     *
+     * @return false if any warehouse no longer holds its amount, in which case the caller must roll back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean decreaseAmounts(final Long itemId, final Map<Long, Double> amountsByWarehouseId) {
+        return decreaseAmounts(Map.of(itemId, amountsByWarehouseId));
+    }
+
+    /**
+     * Same as {@link #decreaseAmounts(Long, Map)} for several items, amounts keyed by item id and then by
+     * warehouse id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean decreaseAmounts(final Map<Long, Map<Long, Double>> amountsByItemId) {
+        entityManager.flush();
+        List<Object[]> batchArgs = new ArrayList<>();
+        Set<Long> warehouseIds = new HashSet<>();
+        amountsByItemId.forEach((itemId, amountsByWarehouseId) -> amountsByWarehouseId
+                .forEach((warehouseId, amount) -> {
+                    batchArgs.add(new Object[]{amount, warehouseId, itemId, amount});
+                    warehouseIds.add(warehouseId);
+                }));
+        if (Arrays.stream(jdbcTemplate.batchUpdate(DECREASE_AMOUNT_SQL, batchArgs)).anyMatch(count -> count == 0)) {
+            return false;
+        }
+        warehouseItemRepository.deleteEmpty(amountsByItemId.keySet(), warehouseIds);
+        amountsByItemId.forEach((itemId, amountsByWarehouseId) -> amountsByWarehouseId
+                .forEach((warehouseId, amount) -> stockIndex.addAmount(itemId, warehouseId, -amount)));
+        return true;
+    }
+
+    /**
+     * Puts stock back, recreating the row if the warehouse ran out of the item in the meantime.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increaseAmount(final Long warehouseId, final Long itemId, final Double amount) {
+        increaseAmounts(Map.of(itemId, Map.of(warehouseId, amount)));
+    }
+
+    /**
+     * Puts back several items with a single batch of updates, amounts keyed by item id and then by warehouse id.
+     * Rows removed when they ran out are recreated together afterwards, under a lock on their warehouses so that
+     * a concurrent transaction recreating the same row is added to instead of inserting it a second time.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increaseAmounts(final Map<Long, Map<Long, Double>> amountsByItemId) {
+        entityManager.flush();
+        List<Object[]> batchArgs = new ArrayList<>();
+        amountsByItemId.forEach((itemId, amountsByWarehouseId) -> amountsByWarehouseId
+                .forEach((warehouseId, amount) -> batchArgs.add(new Object[]{amount, warehouseId, itemId})));
+        List<Object[]> missing = notUpdated(batchArgs);
+        if (!missing.isEmpty()) {
+            warehouseRepository.findForUpdate(missing.stream()
+                    .map(args -> (Long) args[1])
+                    .collect(Collectors.toSet()));
+            List<WarehouseItem> recreated = new ArrayList<>();
+            for (Object[] args : notUpdated(missing)) {
+                recreated.add(new WarehouseItem(null, (Double) args[0],
+                        entityManager.getReference(Item.class, args[2]),
+                        entityManager.getReference(Warehouse.class, args[1])));
+            }
+            warehouseItemRepository.saveAll(recreated);
+            // written right away, so warehouses read afterwards in the transaction include the recreated rows
+            entityManager.flush();
+        }
+        amountsByItemId.forEach((itemId, amountsByWarehouseId) -> amountsByWarehouseId
+                .forEach((warehouseId, amount) -> stockIndex.addAmount(itemId, warehouseId, amount)));
+    }
+
+    /**
+     * @return the arguments of the increments that found no row to update
+     */
+    private List<Object[]> notUpdated(final List<Object[]> batchArgs) {
+        int[] updated = jdbcTemplate.batchUpdate(INCREASE_AMOUNT_SQL, batchArgs);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(batchArgs.get(i));
+            }
+        }
+        return missing;
+    }
+
+}
@@ -1,28 +1,28 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.Operation;
 import com.itechart.orderplanningproblem.dto.WarehouseDto;
 import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
-import com.itechart.orderplanningproblem.entity.Customer;
-import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.entity.Warehouse;
 import com.itechart.orderplanningproblem.entity.WarehouseItem;
 import com.itechart.orderplanningproblem.error.exception.ConflictWithCurrentWarehouseStateException;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
-import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
+import com.itechart.orderplanningproblem.mapper.WarehouseMapper;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import com.itechart.orderplanningproblem.repository.ItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,10 +32,16 @@ public class WarehouseService {
 
     private final WarehouseRepository warehouseRepository;
     private final ItemRepository itemRepository;
-    private final CustomerRepository customerRepository;
+    private final ItemNameCache itemNameCache;
     private final DistanceRepository distanceRepository;
-    private final ObjectMapper objectMapper;
-    private final DistanceService distanceService;
+    private final WarehouseMapper warehouseMapper;
+    private final ItemMapper itemMapper;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+    private final WarehouseItemRepository warehouseItemRepository;
+    private final WarehouseLocator warehouseLocator;
+    private final DistanceFanOutService distanceFanOutService;
+    private final ReservationService reservationService;
 
     private static final String WAREHOUSE_IDENTIFIER_SHOULD_BE_UNIQUE_LITERAL = "Warehouse with such identifier" +
             " already exists. Warehouse identifier should be unique!";
@@ -43,22 +49,16 @@ public class WarehouseService {
     @Transactional
     public WarehouseDto create(final WarehouseDto warehouseDto) throws UnprocessableEntityException {
         checkInDbByName(warehouseDto.getName());
-        Warehouse warehouseFromDto = objectMapper.convertValue(warehouseDto, Warehouse.class);
+        Warehouse warehouseFromDto = warehouseMapper.toEntity(warehouseDto);
         mapWarehouseItems(warehouseFromDto);
+        warehouseFromDto.setDistancesReady(!warehouseLocator.usesDistanceTable());
         Warehouse createdWarehouse = warehouseRepository.save(warehouseFromDto);
-        mapWarehouseToExistentCustomers(createdWarehouse);
-        return objectMapper.convertValue(createdWarehouse, WarehouseDto.class);
-    }
-
-    private void mapWarehouseToExistentCustomers(final Warehouse warehouse) {
-        List<Customer> allCustomers = customerRepository.findAll();
-        List<Distance> distances = allCustomers.stream().map(customer -> {
-            double distanceValue = distanceService.getDistanceByLatitudeAndLongitude(
-                    customer.getLocation().getLatitude(), customer.getLocation().getLongitude(),
-                    warehouse.getLocation().getLatitude(), warehouse.getLocation().getLongitude());
-            return new Distance(null, distanceValue, customer, warehouse);
-        }).collect(Collectors.toList());
-        distanceRepository.saveAll(distances);
+        if (warehouseLocator.usesDistanceTable()) {
+            distanceFanOutService.schedule(createdWarehouse);
+        }
+        warehouseLocator.addWarehouse(createdWarehouse);
+        indexWarehouseItems(createdWarehouse);
+        return warehouseMapper.toDto(createdWarehouse);
     }
 
     @Transactional
@@ -68,7 +68,7 @@ public class WarehouseService {
         checkInDbByName(newName);
         warehouse.setName(newName);
         Warehouse savedWarehouse = warehouseRepository.save(warehouse);
-        return objectMapper.convertValue(savedWarehouse, WarehouseDto.class);
+        return warehouseMapper.toDto(savedWarehouse);
     }
 
     @Transactional
@@ -87,67 +87,73 @@ public class WarehouseService {
 
     private WarehouseDto increaseAmountOfWarehouseItem(
             final WarehouseItemChangeAmountDto warehouseItemChangeAmountDto) throws ResourceNotFoundException {
-        Warehouse warehouse = findWarehouseById(warehouseItemChangeAmountDto.getWarehouseId());
-        warehouse.getItems().stream()
-                .filter(item -> item.getItem().getName().equals(warehouseItemChangeAmountDto.getItem().getName()))
-                .findFirst()
-                .ifPresentOrElse(
-                        whItem -> whItem.setAmount(whItem.getAmount() + warehouseItemChangeAmountDto.getAmount()),
-
-                        () -> {
-                            Item itemToSave = objectMapper.convertValue(warehouseItemChangeAmountDto.getItem(),
-                                    Item.class);
-                            findByNameOrCreateItemToPersist(itemToSave);
-                            warehouse.getItems().add(new WarehouseItem(null,
-                                    warehouseItemChangeAmountDto.getAmount(), itemToSave, warehouse));
-                        });
-
-        Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
-        return objectMapper.convertValue(updatedWarehouse, WarehouseDto.class);
+        Long warehouseId = warehouseItemChangeAmountDto.getWarehouseId();
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse with id = " + warehouseId + " doesn't exist");
+        }
+        Item increasedItem = itemNameCache.findByName(warehouseItemChangeAmountDto.getItem().getName())
+                .orElseGet(() -> itemRepository.save(itemMapper.toEntity(warehouseItemChangeAmountDto.getItem())));
+        stockService.increaseAmount(warehouseId, increasedItem.getId(), warehouseItemChangeAmountDto.getAmount());
+        return warehouseMapper.toDto(findWarehouseById(warehouseId));
     }
 
     private WarehouseDto decreaseAmountOfWarehouseItem(final WarehouseItemChangeAmountDto warehouseItemChangeAmountDto)
             throws ResourceNotFoundException, ConflictWithCurrentWarehouseStateException {
-        Warehouse warehouse = findWarehouseById(warehouseItemChangeAmountDto.getWarehouseId());
-        Item neededItem = itemRepository.readByName(warehouseItemChangeAmountDto.getItem().getName())
+        Long warehouseId = warehouseItemChangeAmountDto.getWarehouseId();
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new ResourceNotFoundException("Warehouse with id = " + warehouseId + " doesn't exist");
+        }
+        Item neededItem = itemNameCache.findByName(warehouseItemChangeAmountDto.getItem().getName())
                 .orElseThrow(() -> new ResourceNotFoundException("Item with such name doesn't exist"));
-        WarehouseItem item = warehouse.getItems().stream()
-                .filter(it -> it.getItem().getId().equals(neededItem.getId()))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("There is no item with such name in warehouse with id "
-                        + warehouse.getId()));
-
-        if (item.getAmount() >= warehouseItemChangeAmountDto.getAmount()) {
-            item.setAmount(item.getAmount() - warehouseItemChangeAmountDto.getAmount());
-            if (item.getAmount() == 0) {
-                warehouse.getItems().remove(item);
-            }
-        } else {
+
+        if (!stockService.decreaseAmount(warehouseId, neededItem.getId(), warehouseItemChangeAmountDto.getAmount())) {
+            Double currentAmount = warehouseItemRepository.findAmount(warehouseId, neededItem.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "There is no item with such name in warehouse with id " + warehouseId));
             throw new ConflictWithCurrentWarehouseStateException("It is impossible to remove more items " +
-                    "than are in the warehouse! Current value of item with name " + item.getItem().getName()
-                    + " is " + item.getAmount() + ".");
+                    "than are in the warehouse! Current value of item with name " + neededItem.getName()
+                    + " is " + currentAmount + ".");
         }
 
-        Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
-        return objectMapper.convertValue(updatedWarehouse, WarehouseDto.class);
+        return warehouseMapper.toDto(findWarehouseById(warehouseId));
     }
 
     public WarehouseDto readById(final Long id) throws ResourceNotFoundException {
-        return warehouseRepository.findById(id).map(
-                warehouse -> objectMapper.convertValue(warehouse, WarehouseDto.class))
+        return warehouseRepository.findWithItemsById(id).map(warehouseMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse with id = " + id + " doesn't exist"));
     }
 
+    @Transactional(readOnly = true)
     public Page<WarehouseDto> readPage(Pageable pageable) {
-        return warehouseRepository.findAll(pageable)
-                .map(warehouse -> objectMapper.convertValue(warehouse, WarehouseDto.class));
+        Page<Warehouse> warehouses = warehouseRepository.findAll(pageable);
+        fetchItems(warehouses.getContent());
+        return warehouses.map(warehouseMapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<WarehouseDto> readCursorPage(final String cursor, final int size) {
+        List<Warehouse> warehouses = warehouseRepository.findByIdLessThanOrderByIdDesc(CursorPages.decode(cursor),
+                CursorPages.limit(size));
+        fetchItems(warehouses);
+        return CursorPages.toPage(warehouses, size, Warehouse::getId, warehouseMapper::toDto);
+    }
+
+    private void fetchItems(final List<Warehouse> warehouses) {
+        if (!warehouses.isEmpty()) {
+            warehouseRepository.findWithItemsByIdIn(warehouses.stream()
+                    .map(Warehouse::getId)
+                    .collect(Collectors.toList()));
+        }
     }
 
     @Transactional
     public void deleteById(final Long id) {
         warehouseRepository.findById(id).ifPresent(warehouse -> {
+            warehouseLocator.removeWarehouse(id);
+            reservationService.releaseByWarehouseId(id);
             distanceRepository.deleteByWarehouseId(id);
             warehouseRepository.deleteById(id);
+            stockIndex.removeWarehouse(id);
         });
     }
 
@@ -158,14 +164,21 @@ public class WarehouseService {
         });
     }
 
+    private void indexWarehouseItems(final Warehouse warehouse) {
+        warehouse.getItems().stream()
+                .collect(Collectors.groupingBy(whItem -> whItem.getItem().getId(),
+                        Collectors.summingDouble(WarehouseItem::getAmount)))
+                .forEach((itemId, amount) -> stockIndex.addAmount(itemId, warehouse.getId(), amount));
+    }
+
     private void findByNameOrCreateItemToPersist(Item item) {
-        itemRepository.readByName(item.getName()).ifPresentOrElse(
+        itemNameCache.findByName(item.getName()).ifPresentOrElse(
                 foundItem -> item.setId(foundItem.getId()),
                 () -> itemRepository.save(item));
     }
 
     private Warehouse findWarehouseById(final Long warehouseId) throws ResourceNotFoundException {
-        return warehouseRepository.findById(warehouseId)
+        return warehouseRepository.findWithItemsById(warehouseId)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Warehouse with id = " + warehouseId + " doesn't exist"));
     }
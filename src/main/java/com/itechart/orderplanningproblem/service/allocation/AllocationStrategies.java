@@ -0,0 +1,48 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Allocation strategies by name. Orders use the one set with allocation.strategy unless a request names
+ * another one.
+ */
+@Component
+public class AllocationStrategies {
+
+    private final Map<String, AllocationStrategy> strategiesByName;
+    private final AllocationStrategy defaultStrategy;
+
+    public AllocationStrategies(final List<AllocationStrategy> strategies,
+                                @Value("${allocation.strategy:nearest}") final String defaultStrategyName) {
+        this.strategiesByName = strategies.stream()
+                .collect(Collectors.toMap(AllocationStrategy::getName, Function.identity()));
+        this.defaultStrategy = strategiesByName.get(defaultStrategyName);
+        if (defaultStrategy == null) {
+            throw new IllegalStateException("Unknown allocation.strategy " + defaultStrategyName
+                    + ", available are " + strategiesByName.keySet());
+        }
+    }
+
+    /**
+     * @param name strategy name, null for the configured one
+     */
+    public AllocationStrategy get(final String name) throws UnprocessableEntityException {
+        if (name == null) {
+            return defaultStrategy;
+        }
+        AllocationStrategy strategy = strategiesByName.get(name);
+        if (strategy == null) {
+            throw new UnprocessableEntityException("There is no allocation strategy " + name
+                    + ", available are " + strategiesByName.keySet() + "!");
+        }
+        return strategy;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+
+/**
+ * Picks the warehouse a single-item order is shipped from and takes the amount of the order there.
+ * Strategies are looked up by name, see {@link AllocationStrategies}.
+ */
+public interface AllocationStrategy {
+
+    String getName();
+
+    /**
+     * @return the warehouse the amount was taken from with its distance to the customer, null if no warehouse
+     * the strategy accepts can ship the order
+     */
+    WarehouseDistance allocate(Order order);
+
+}
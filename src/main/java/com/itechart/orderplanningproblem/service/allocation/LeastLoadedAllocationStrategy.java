@@ -0,0 +1,72 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.StockService;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Among the allocation.least-loaded.k nearest warehouses with enough stock, ships from the one holding the most
+ * of the item, so that demand drains nearby warehouses evenly instead of emptying the nearest one first.
+ */
+@Component
+public class LeastLoadedAllocationStrategy implements AllocationStrategy {
+
+    public static final String NAME = "least-loaded";
+
+    private final WarehouseLocator warehouseLocator;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+    private final int k;
+
+    public LeastLoadedAllocationStrategy(final WarehouseLocator warehouseLocator, final StockIndex stockIndex,
+                                         final StockService stockService,
+                                         @Value("${allocation.least-loaded.k:5}") final int k) {
+        this.warehouseLocator = warehouseLocator;
+        this.stockIndex = stockIndex;
+        this.stockService = stockService;
+        this.k = k;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public WarehouseDistance allocate(final Order order) {
+        Long itemId = order.getItem().getId();
+        // a snapshot, so a warehouse drained meanwhile keeps the amount it is ranked by
+        Map<Long, Double> stock = new HashMap<>(stockIndex.findStock(itemId));
+        if (stock.isEmpty()) {
+            return null;
+        }
+        List<WarehouseDistance> nearest = new ArrayList<>(k);
+        Iterator<WarehouseDistance> candidates = warehouseLocator.findNearestWarehouses(order.getCustomer());
+        while (nearest.size() < k && candidates.hasNext()) {
+            WarehouseDistance candidate = candidates.next();
+            if (stock.getOrDefault(candidate.getWarehouseId(), 0.0) >= order.getAmount()) {
+                nearest.add(candidate);
+            }
+        }
+        nearest.sort(Comparator.comparing((WarehouseDistance candidate) -> stock.get(candidate.getWarehouseId()))
+                .reversed());
+        for (WarehouseDistance candidate : nearest) {
+            if (stockService.decreaseAmount(candidate.getWarehouseId(), itemId, order.getAmount())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.StockService;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ships from the nearest warehouse that has enough stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class NearestFirstAllocationStrategy implements AllocationStrategy {
+
+    public static final String NAME = "nearest";
+
+    private final DistanceRepository distanceRepository;
+    private final WarehouseLocator warehouseLocator;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public WarehouseDistance allocate(final Order order) {
+        return warehouseLocator.usesDistanceTable()
+                ? takeFromNearestStockedWarehouse(order)
+                : takeFromNearestWarehouses(order);
+    }
+
+    /**
+     * Lets the database pick the nearest warehouse with enough stock. If a concurrent order takes that stock
+     * first, the lookup isn't repeated, since under repeatable read it would return the same snapshot, and
+     * the candidates are walked instead. They are walked as well when the table keeps only the nearest
+     * warehouses of the customer and none of them has the stock.
+     */
+    private WarehouseDistance takeFromNearestStockedWarehouse(final Order order) {
+        Long itemId = order.getItem().getId();
+        List<WarehouseDistance> nearest = distanceRepository.findNearestStockedWarehouses(
+                order.getCustomer().getId(), itemId, order.getAmount(), PageRequest.of(0, 1));
+        if (nearest.isEmpty()) {
+            return warehouseLocator.distanceTableLimit().isPresent() ? takeFromNearestWarehouses(order) : null;
+        }
+        if (stockService.decreaseAmount(nearest.get(0).getWarehouseId(), itemId, order.getAmount())) {
+            return nearest.get(0);
+        }
+        return takeFromNearestWarehouses(order);
+    }
+
+    /**
+     * Walks the candidates nearest first and stops once every warehouse with enough stock has been visited,
+     * so the walk doesn't go through the warehouses left beyond the farthest one.
+     */
+    private WarehouseDistance takeFromNearestWarehouses(final Order order) {
+        Long itemId = order.getItem().getId();
+        Map<Long, Double> stock = new HashMap<>(stockIndex.findStock(itemId));
+        stock.values().removeIf(amount -> amount < order.getAmount());
+        int unvisitedStockedWarehouses = stock.size();
+        Iterator<WarehouseDistance> candidates = stock.isEmpty()
+                ? Collections.emptyIterator()
+                : warehouseLocator.findNearestWarehouses(order.getCustomer());
+        while (unvisitedStockedWarehouses > 0 && candidates.hasNext()) {
+            WarehouseDistance candidate = candidates.next();
+            if (stock.containsKey(candidate.getWarehouseId())) {
+                unvisitedStockedWarehouses--;
+                if (stockService.decreaseAmount(candidate.getWarehouseId(), itemId, order.getAmount())) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.StockService;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Ships from the nearest warehouse with enough stock that is at most allocation.radius.km kilometres away
+ * from the customer, and rejects the order if there is none.
+ */
+@Component
+public class RadiusAllocationStrategy implements AllocationStrategy {
+
+    public static final String NAME = "radius";
+
+    private final WarehouseLocator warehouseLocator;
+    private final StockIndex stockIndex;
+    private final StockService stockService;
+    private final double radius;
+
+    public RadiusAllocationStrategy(final WarehouseLocator warehouseLocator, final StockIndex stockIndex,
+                                    final StockService stockService,
+                                    @Value("${allocation.radius.km:1000}") final double radius) {
+        this.warehouseLocator = warehouseLocator;
+        this.stockIndex = stockIndex;
+        this.stockService = stockService;
+        this.radius = radius;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public WarehouseDistance allocate(final Order order) {
+        Long itemId = order.getItem().getId();
+        Map<Long, Double> stock = stockIndex.findStock(itemId);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        Iterator<WarehouseDistance> candidates = warehouseLocator.findNearestWarehouses(order.getCustomer());
+        while (candidates.hasNext()) {
+            WarehouseDistance candidate = candidates.next();
+            if (candidate.getDistanceValue() > radius) {
+                return null;
+            }
+            if (stock.getOrDefault(candidate.getWarehouseId(), 0.0) >= order.getAmount()
+                    && stockService.decreaseAmount(candidate.getWarehouseId(), itemId, order.getAmount())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Solves the transportation problem (ship demand from supplies at minimum total cost) as a min-cost flow
+ * with successive shortest paths. A route with a non-finite cost doesn't exist.
+ */
+public final class TransportationSolver {
+
+    public static final double EPSILON = 1e-9;
+
+    private final int sourceNode;
+    private final int sinkNode;
+    private final int[] head;
+    private final int[] next;
+    private final int[] to;
+    private final double[] capacity;
+    private final double[] cost;
+    private final double[] flow;
+    private int edgeCount;
+
+    private TransportationSolver(final int nodeCount, final int edgeCapacity) {
+        this.sourceNode = nodeCount - 2;
+        this.sinkNode = nodeCount - 1;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        this.next = new int[edgeCapacity * 2];
+        this.to = new int[edgeCapacity * 2];
+        this.capacity = new double[edgeCapacity * 2];
+        this.cost = new double[edgeCapacity * 2];
+        this.flow = new double[edgeCapacity * 2];
+    }
+
+    /**
+     * @return shipped amounts indexed as [supplier][consumer]
+     */
+    public static double[][] solve(final double[] supply, final double[] demand, final double[][] routeCost) {
+        int suppliers = supply.length;
+        int consumers = demand.length;
+        TransportationSolver solver = new TransportationSolver(suppliers + consumers + 2,
+                suppliers + consumers + suppliers * consumers);
+        for (int i = 0; i < suppliers; i++) {
+            solver.addEdge(solver.sourceNode, i, supply[i], 0);
+        }
+        for (int j = 0; j < consumers; j++) {
+            solver.addEdge(suppliers + j, solver.sinkNode, demand[j], 0);
+        }
+        int[][] routeEdges = new int[suppliers][consumers];
+        for (int i = 0; i < suppliers; i++) {
+            for (int j = 0; j < consumers; j++) {
+                routeEdges[i][j] = Double.isFinite(routeCost[i][j])
+                        ? solver.addEdge(i, suppliers + j, Double.POSITIVE_INFINITY, routeCost[i][j])
+                        : -1;
+            }
+        }
+        solver.run();
+        double[][] shipments = new double[suppliers][consumers];
+        for (int i = 0; i < suppliers; i++) {
+            for (int j = 0; j < consumers; j++) {
+                shipments[i][j] = routeEdges[i][j] < 0 ? 0 : solver.flow[routeEdges[i][j]];
+            }
+        }
+        return shipments;
+    }
+
+    private int addEdge(final int from, final int target, final double edgeCapacity, final double edgeCost) {
+        int edge = edgeCount;
+        link(from, target, edgeCapacity, edgeCost);
+        link(target, from, 0, -edgeCost);
+        return edge;
+    }
+
+    private void link(final int from, final int target, final double edgeCapacity, final double edgeCost) {
+        to[edgeCount] = target;
+        capacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount++;
+    }
+
+    private void run() {
+        int nodeCount = head.length;
+        double[] potential = new double[nodeCount];
+        double[] distance = new double[nodeCount];
+        int[] previousEdge = new int[nodeCount];
+        while (true) {
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(previousEdge, -1);
+            distance[sourceNode] = 0;
+            PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            queue.add(new double[]{0, sourceNode});
+            while (!queue.isEmpty()) {
+                double[] current = queue.poll();
+                int node = (int) current[1];
+                if (current[0] > distance[node]) {
+                    continue;
+                }
+                for (int edge = head[node]; edge != -1; edge = next[edge]) {
+                    if (capacity[edge] - flow[edge] <= EPSILON) {
+                        continue;
+                    }
+                    int target = to[edge];
+                    double reducedCost = Math.max(0, cost[edge] + potential[node] - potential[target]);
+                    if (distance[node] + reducedCost < distance[target]) {
+                        distance[target] = distance[node] + reducedCost;
+                        previousEdge[target] = edge;
+                        queue.add(new double[]{distance[target], target});
+                    }
+                }
+            }
+            if (previousEdge[sinkNode] == -1) {
+                return;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                if (distance[node] < Double.POSITIVE_INFINITY) {
+                    potential[node] += distance[node];
+                }
+            }
+            double bottleneck = Double.POSITIVE_INFINITY;
+            for (int node = sinkNode; node != sourceNode; node = to[previousEdge[node] ^ 1]) {
+                bottleneck = Math.min(bottleneck, capacity[previousEdge[node]] - flow[previousEdge[node]]);
+            }
+            for (int node = sinkNode; node != sourceNode; node = to[previousEdge[node] ^ 1]) {
+                flow[previousEdge[node]] += bottleneck;
+                flow[previousEdge[node] ^ 1] -= bottleneck;
+            }
+        }
+    }
+
+}
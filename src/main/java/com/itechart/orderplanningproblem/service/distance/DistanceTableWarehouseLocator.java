@@ -0,0 +1,59 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.projection.CustomerWarehouseDistance;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "distance.mode", havingValue = "table", matchIfMissing = true)
+public class DistanceTableWarehouseLocator implements WarehouseLocator {
+
+    private final DistanceRepository distanceRepository;
+
+    @Override
+    public boolean usesDistanceTable() {
+        return true;
+    }
+
+    @Override
+    public Iterator<WarehouseDistance> findNearestWarehouses(final Customer customer) {
+        return distanceRepository.findWarehouseDistancesForCustomer(customer.getId()).iterator();
+    }
+
+    @Override
+    public Map<Long, Map<Long, Double>> findDistances(final Collection<Customer> customers,
+                                                      final Collection<Long> warehouseIds) {
+        if (customers.isEmpty() || warehouseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return distanceRepository.findDistances(customers.stream()
+                .map(Customer::getId)
+                .collect(Collectors.toSet()), warehouseIds).stream()
+                .collect(Collectors.groupingBy(CustomerWarehouseDistance::getCustomerId,
+                        Collectors.toMap(CustomerWarehouseDistance::getWarehouseId,
+                                CustomerWarehouseDistance::getDistanceValue)));
+    }
+
+    @Override
+    public void addWarehouse(final Warehouse warehouse) {
+        // distances are written by the customer and warehouse fan-out
+    }
+
+    @Override
+    public void removeWarehouse(final Long warehouseId) {
+        // distances are deleted together with the warehouse
+    }
+
+}
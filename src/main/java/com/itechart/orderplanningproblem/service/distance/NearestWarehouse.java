@@ -0,0 +1,12 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import lombok.Value;
+
+@Value
+public class NearestWarehouse implements WarehouseDistance {
+
+    Long warehouseId;
+    Double distanceValue;
+
+}
@@ -0,0 +1,147 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.DistanceService;
+import com.itechart.orderplanningproblem.service.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes warehouse distances on demand from an in-memory k-d tree of warehouse locations, so the
+ * customer x warehouse distance table is neither written nor read. Setting distance.spatial.purge-table
+ * deletes rows left in that table by the table mode once on startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "distance.mode", havingValue = "spatial")
+public class SpatialIndexWarehouseLocator implements WarehouseLocator {
+
+    private final WarehouseRepository warehouseRepository;
+    private final DistanceRepository distanceRepository;
+    private final DistanceService distanceService;
+    private final boolean purgeDistanceTable;
+
+    private final Map<Long, double[]> locationsById = new HashMap<>();
+    private final Object lock = new Object();
+    private volatile WarehouseKdTree tree = new WarehouseKdTree(Map.of());
+
+    public SpatialIndexWarehouseLocator(final WarehouseRepository warehouseRepository,
+                                        final DistanceRepository distanceRepository,
+                                        final DistanceService distanceService,
+                                        @Value("${distance.spatial.purge-table:false}")
+                                        final boolean purgeDistanceTable) {
+        this.warehouseRepository = warehouseRepository;
+        this.distanceRepository = distanceRepository;
+        this.distanceService = distanceService;
+        this.purgeDistanceTable = purgeDistanceTable;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        synchronized (lock) {
+            locationsById.clear();
+            warehouseRepository.findReadyLocations().forEach(location -> locationsById.put(location.getWarehouseId(),
+                    new double[]{location.getLatitude(), location.getLongitude()}));
+            tree = new WarehouseKdTree(locationsById);
+        }
+        if (purgeDistanceTable) {
+            distanceRepository.deleteAllInBatch();
+            log.info("Distance table purged, warehouse distances are computed from the spatial index");
+        }
+    }
+
+    @Override
+    public boolean usesDistanceTable() {
+        return false;
+    }
+
+    @Override
+    public Iterator<WarehouseDistance> findNearestWarehouses(final Customer customer) {
+        return findNearestWarehouses(customer.getLocation().getLatitude(), customer.getLocation().getLongitude());
+    }
+
+    Iterator<WarehouseDistance> findNearestWarehouses(final double latitude, final double longitude) {
+        WarehouseKdTree snapshot = tree;
+        Iterator<Long> nearestWarehouseIds = snapshot.nearest(latitude, longitude);
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return nearestWarehouseIds.hasNext();
+            }
+
+            @Override
+            public WarehouseDistance next() {
+                Long warehouseId = nearestWarehouseIds.next();
+                return new NearestWarehouse(warehouseId, distanceTo(snapshot, latitude, longitude, warehouseId));
+            }
+        };
+    }
+
+    @Override
+    public Map<Long, Map<Long, Double>> findDistances(final Collection<Customer> customers,
+                                                      final Collection<Long> warehouseIds) {
+        WarehouseKdTree snapshot = tree;
+        Map<Long, Map<Long, Double>> distances = new HashMap<>();
+        for (Customer customer : customers) {
+            Map<Long, Double> customerDistances = distances.computeIfAbsent(customer.getId(), id -> new HashMap<>());
+            for (Long warehouseId : warehouseIds) {
+                Double distance = distanceTo(snapshot, customer.getLocation().getLatitude(),
+                        customer.getLocation().getLongitude(), warehouseId);
+                if (distance != null) {
+                    customerDistances.put(warehouseId, distance);
+                }
+            }
+        }
+        return distances;
+    }
+
+    @Override
+    public void addWarehouse(final Warehouse warehouse) {
+        Long warehouseId = warehouse.getId();
+        double[] location = {warehouse.getLocation().getLatitude(), warehouse.getLocation().getLongitude()};
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                locationsById.put(warehouseId, location);
+                tree = new WarehouseKdTree(locationsById);
+            }
+        });
+    }
+
+    @Override
+    public void removeWarehouse(final Long warehouseId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                if (locationsById.remove(warehouseId) != null) {
+                    tree = new WarehouseKdTree(locationsById);
+                }
+            }
+        });
+    }
+
+    private Double distanceTo(final WarehouseKdTree snapshot, final double latitude, final double longitude,
+                              final Long warehouseId) {
+        double[] warehouseLocation = snapshot.location(warehouseId);
+        if (warehouseLocation == null) {
+            return null;
+        }
+        return distanceService.getDistanceByLatitudeAndLongitude(latitude, longitude,
+                warehouseLocation[0], warehouseLocation[1]);
+    }
+
+}
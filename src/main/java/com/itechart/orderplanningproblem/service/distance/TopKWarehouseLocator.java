@@ -0,0 +1,142 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Distance;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.CustomerDistance;
+import com.itechart.orderplanningproblem.repository.projection.CustomerLocation;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.DistanceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps only the distance.top-k.size nearest warehouses of every customer in the distance table, which the
+ * allocation reads first, and falls back to the in-memory spatial index when none of them can serve an order.
+ * Customers and new warehouses write their rows through the usual fan-out, limited to the nearest ones; when a
+ * warehouse is deleted, every customer that kept it gets its next nearest warehouse instead. Writers lock the
+ * customers whose rows they replace, so concurrent fan-outs can't keep more than the limit.
+ */
+@Component
+@ConditionalOnProperty(name = "distance.mode", havingValue = "top-k")
+public class TopKWarehouseLocator implements WarehouseLocator {
+
+    private static final int REFILL_CHUNK_SIZE = 1000;
+
+    private final SpatialIndexWarehouseLocator spatialIndex;
+    private final CustomerRepository customerRepository;
+    private final DistanceRepository distanceRepository;
+    private final EntityManager entityManager;
+    private final int limit;
+
+    public TopKWarehouseLocator(final WarehouseRepository warehouseRepository,
+                                final CustomerRepository customerRepository,
+                                final DistanceRepository distanceRepository,
+                                final DistanceService distanceService, final EntityManager entityManager,
+                                @Value("${distance.top-k.size:20}") final int limit) {
+        this.spatialIndex = new SpatialIndexWarehouseLocator(warehouseRepository, distanceRepository,
+                distanceService, false);
+        this.customerRepository = customerRepository;
+        this.distanceRepository = distanceRepository;
+        this.entityManager = entityManager;
+        this.limit = limit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        spatialIndex.rebuild();
+    }
+
+    @Override
+    public boolean usesDistanceTable() {
+        return true;
+    }
+
+    @Override
+    public OptionalInt distanceTableLimit() {
+        return OptionalInt.of(limit);
+    }
+
+    @Override
+    public Iterator<WarehouseDistance> findNearestWarehouses(final Customer customer) {
+        return spatialIndex.findNearestWarehouses(customer);
+    }
+
+    /**
+     * Computed from the spatial index, since the table lacks the pairs beyond the nearest warehouses.
+     */
+    @Override
+    public Map<Long, Map<Long, Double>> findDistances(final Collection<Customer> customers,
+                                                      final Collection<Long> warehouseIds) {
+        return spatialIndex.findDistances(customers, warehouseIds);
+    }
+
+    /**
+     * The warehouse joins the spatial index only once its fan-out is done, so the fallback never allocates from
+     * a warehouse that the table doesn't offer yet.
+     */
+    @Override
+    public void addWarehouse(final Warehouse warehouse) {
+    }
+
+    @Override
+    public void markDistancesReady(final Warehouse warehouse) {
+        spatialIndex.addWarehouse(warehouse);
+    }
+
+    @Override
+    public void removeWarehouse(final Long warehouseId) {
+        List<Long> customerIds = distanceRepository.findCustomerIdsByWarehouseId(warehouseId);
+        for (int from = 0; from < customerIds.size(); from += REFILL_CHUNK_SIZE) {
+            refill(customerIds.subList(from, Math.min(from + REFILL_CHUNK_SIZE, customerIds.size())), warehouseId);
+        }
+        spatialIndex.removeWarehouse(warehouseId);
+    }
+
+    /**
+     * Adds the nearest warehouse that the customers don't keep yet, skipping the one being removed.
+     */
+    private void refill(final List<Long> customerIds, final Long removedWarehouseId) {
+        customerRepository.lockByIdIn(customerIds);
+        Map<Long, Set<Long>> keptWarehouseIds = distanceRepository.findByCustomerIds(customerIds).stream()
+                .collect(Collectors.groupingBy(CustomerDistance::getCustomerId,
+                        Collectors.mapping(CustomerDistance::getWarehouseId, Collectors.toCollection(HashSet::new))));
+        List<Distance> distances = new ArrayList<>(customerIds.size());
+        for (CustomerLocation location : customerRepository.findLocationsByIdIn(customerIds)) {
+            Set<Long> kept = keptWarehouseIds.getOrDefault(location.getCustomerId(), Set.of());
+            Iterator<WarehouseDistance> nearest = spatialIndex.findNearestWarehouses(location.getLatitude(),
+                    location.getLongitude());
+            while (nearest.hasNext()) {
+                WarehouseDistance candidate = nearest.next();
+                if (!candidate.getWarehouseId().equals(removedWarehouseId)
+                        && !kept.contains(candidate.getWarehouseId())) {
+                    distances.add(new Distance(null, candidate.getDistanceValue(),
+                            entityManager.getReference(Customer.class, location.getCustomerId()),
+                            entityManager.getReference(Warehouse.class, candidate.getWarehouseId())));
+                    break;
+                }
+            }
+        }
+        distanceRepository.saveAll(distances);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable 3-d tree over warehouse locations projected onto the unit sphere. Straight-line (chord) distance
+ * between unit vectors grows monotonically with great-circle distance, so ordering by chord is ordering by
+ * haversine distance.
+ */
+final class WarehouseKdTree {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Map<Long, double[]> locationsById;
+    private final Node root;
+
+    WarehouseKdTree(final Map<Long, double[]> locationsById) {
+        this.locationsById = Map.copyOf(locationsById);
+        Node[] nodes = locationsById.entrySet().stream()
+                .map(location -> new Node(location.getKey(),
+                        toUnitVector(location.getValue()[0], location.getValue()[1])))
+                .toArray(Node[]::new);
+        this.root = build(nodes, 0, nodes.length, 0);
+    }
+
+    /**
+     * @return latitude and longitude of the warehouse, or null if the tree doesn't contain it
+     */
+    double[] location(final Long warehouseId) {
+        return locationsById.get(warehouseId);
+    }
+
+    static double[] toUnitVector(final double latitude, final double longitude) {
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        return new double[]{
+                Math.cos(latitudeRadians) * Math.cos(longitudeRadians),
+                Math.cos(latitudeRadians) * Math.sin(longitudeRadians),
+                Math.sin(latitudeRadians)
+        };
+    }
+
+    /**
+     * Best-first traversal: the queue holds subtrees keyed by the distance to their bounding box and
+     * warehouses keyed by their exact distance, so a warehouse is only returned once nothing closer can remain.
+     */
+    Iterator<Long> nearest(final double latitude, final double longitude) {
+        double[] query = toUnitVector(latitude, longitude);
+        PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry.distance));
+        if (root != null) {
+            queue.add(new Entry(root, false, root.boxDistanceSquared(query)));
+        }
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                expandUntilWarehouseOnTop();
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public Long next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return queue.poll().node.warehouseId;
+            }
+
+            private void expandUntilWarehouseOnTop() {
+                while (!queue.isEmpty() && !queue.peek().exact) {
+                    Node node = queue.poll().node;
+                    queue.add(new Entry(node, true, distanceSquared(node.point, query)));
+                    if (node.left != null) {
+                        queue.add(new Entry(node.left, false, node.left.boxDistanceSquared(query)));
+                    }
+                    if (node.right != null) {
+                        queue.add(new Entry(node.right, false, node.right.boxDistanceSquared(query)));
+                    }
+                }
+            }
+        };
+    }
+
+    private static Node build(final Node[] nodes, final int from, final int to, final int depth) {
+        if (from >= to) {
+            return null;
+        }
+        int axis = depth % DIMENSIONS;
+        Arrays.sort(nodes, from, to, Comparator.comparingDouble(node -> node.point[axis]));
+        int median = (from + to) >>> 1;
+        Node node = nodes[median];
+        node.left = build(nodes, from, median, depth + 1);
+        node.right = build(nodes, median + 1, to, depth + 1);
+        node.min = node.point.clone();
+        node.max = node.point.clone();
+        for (Node child : new Node[]{node.left, node.right}) {
+            if (child != null) {
+                for (int i = 0; i < DIMENSIONS; i++) {
+                    node.min[i] = Math.min(node.min[i], child.min[i]);
+                    node.max[i] = Math.max(node.max[i], child.max[i]);
+                }
+            }
+        }
+        return node;
+    }
+
+    private static double distanceSquared(final double[] first, final double[] second) {
+        double sum = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            double difference = first[i] - second[i];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    private static final class Node {
+
+        private final Long warehouseId;
+        private final double[] point;
+        private Node left;
+        private Node right;
+        private double[] min;
+        private double[] max;
+
+        private Node(final Long warehouseId, final double[] point) {
+            this.warehouseId = warehouseId;
+            this.point = point;
+        }
+
+        private double boxDistanceSquared(final double[] query) {
+            double sum = 0;
+            for (int i = 0; i < DIMENSIONS; i++) {
+                double difference = Math.max(0, Math.max(min[i] - query[i], query[i] - max[i]));
+                sum += difference * difference;
+            }
+            return sum;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final Node node;
+        private final boolean exact;
+        private final double distance;
+
+        private Entry(final Node node, final boolean exact, final double distance) {
+            this.node = node;
+            this.exact = exact;
+            this.distance = distance;
+        }
+
+    }
+
+}
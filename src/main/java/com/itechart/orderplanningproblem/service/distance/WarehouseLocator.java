@@ -0,0 +1,51 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Answers "which warehouses are closest to this customer" for allocation. Selected with the distance.mode
+ * property: "table" reads the precomputed distance table, "spatial" searches warehouse locations in memory,
+ * "top-k" keeps only the nearest warehouses of every customer in the table and searches in memory beyond them.
+ */
+public interface WarehouseLocator {
+
+    boolean usesDistanceTable();
+
+    /**
+     * @return how many nearest warehouses of a customer the distance table keeps, empty if it keeps all of them
+     */
+    default OptionalInt distanceTableLimit() {
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @return warehouses ordered nearest-first, computed lazily where the mode allows it
+     */
+    Iterator<WarehouseDistance> findNearestWarehouses(Customer customer);
+
+    /**
+     * @return distances indexed by customer id and then by warehouse id; pairs without a route are absent
+     */
+    Map<Long, Map<Long, Double>> findDistances(Collection<Customer> customers, Collection<Long> warehouseIds);
+
+    void addWarehouse(Warehouse warehouse);
+
+    /**
+     * Called by the transaction that marks the distances of a warehouse added with a distance fan-out ready.
+     */
+    default void markDistancesReady(final Warehouse warehouse) {
+    }
+
+    /**
+     * Called before the distances of the warehouse are deleted.
+     */
+    void removeWarehouse(Long warehouseId);
+
+}
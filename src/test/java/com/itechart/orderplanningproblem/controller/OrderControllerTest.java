@@ -0,0 +1,34 @@
+package com.itechart.orderplanningproblem.controller;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderControllerTest {
+
+    @Autowired
+    private OrderController orderController;
+
+    @Test
+    void MoreOrdersThanBatchLimit_CreateOrders_ThrowConstraintViolationException() {
+        // given
+        List<CreateOrderDto> orders = Collections.nCopies(1001,
+                new CreateOrderDto(1.0, ItemDto.builder().name("Chocolate").build(), 1L));
+        // then
+        ConstraintViolationException exception = Assertions.assertThrows(ConstraintViolationException.class,
+                () -> orderController.createOrders(orders));
+        Assertions.assertEquals(1, exception.getConstraintViolations().size());
+
+    }
+
+}
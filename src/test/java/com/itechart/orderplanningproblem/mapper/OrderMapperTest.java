@@ -0,0 +1,52 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Location;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+class OrderMapperTest {
+
+    private final LocationMapper locationMapper = new LocationMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final OrderMapper orderMapper = new OrderMapper(itemMapper, new CustomerMapper(locationMapper),
+            new WarehouseMapper(locationMapper, new WarehouseItemMapper(itemMapper)));
+
+    @Test
+    void Order_MapToDto_ReturnSameDtoAsObjectMapper() {
+        // given
+        Item item = new Item(4L, "Chocolate");
+        Warehouse warehouse = new Warehouse(1L, "Warehouse", new Location(2L, 22.12345, 54.6688),
+                new ArrayList<>(), true);
+        warehouse.getItems().add(new WarehouseItem(3L, 30.0, item, warehouse));
+        Customer customer = new Customer(5L, "Customer", new Location(6L, 55.0055, 24.454732));
+        Order order = new Order(7L, 10.0, 4432.186613415447, item, customer, warehouse);
+        // when
+        OrderDto orderDto = orderMapper.toDto(order);
+        // then
+        Assertions.assertEquals(new ObjectMapper().convertValue(order, OrderDto.class), orderDto);
+
+    }
+
+    @Test
+    void OrderWithoutWarehouse_MapToDto_ReturnDtoWithoutWarehouse() {
+        // given
+        Order order = new Order(null, 10.0, null, new Item(4L, "Chocolate"),
+                new Customer(5L, "Customer", new Location(6L, 55.0055, 24.454732)), null);
+        // when
+        OrderDto orderDto = orderMapper.toDto(order);
+        // then
+        Assertions.assertNull(orderDto.getWarehouse());
+        Assertions.assertEquals(new ObjectMapper().convertValue(order, OrderDto.class), orderDto);
+
+    }
+
+}
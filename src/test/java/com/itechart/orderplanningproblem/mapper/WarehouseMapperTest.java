@@ -0,0 +1,61 @@
+package com.itechart.orderplanningproblem.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Location;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class WarehouseMapperTest {
+
+    private final WarehouseMapper warehouseMapper = new WarehouseMapper(new LocationMapper(),
+            new WarehouseItemMapper(new ItemMapper()));
+
+    @Test
+    void Warehouse_MapToDto_ReturnSameDtoAsObjectMapper() {
+        // given
+        Warehouse warehouse = Warehouse.builder()
+                .id(1L)
+                .name("Warehouse")
+                .location(new Location(2L, 22.12345, 54.6688))
+                .items(new ArrayList<>())
+                .build();
+        warehouse.getItems().add(new WarehouseItem(3L, 30.0, new Item(4L, "Chocolate"), warehouse));
+        warehouse.getItems().add(new WarehouseItem(5L, 10.0, new Item(6L, "Milk"), warehouse));
+        // when
+        WarehouseDto warehouseDto = warehouseMapper.toDto(warehouse);
+        // then
+        Assertions.assertEquals(new ObjectMapper().convertValue(warehouse, WarehouseDto.class), warehouseDto);
+        Assertions.assertEquals(2, warehouseDto.getItems().size());
+
+    }
+
+    @Test
+    void WarehouseDto_MapToEntity_ReturnWarehouseWithItemsWithoutOwner() {
+        // given
+        WarehouseDto warehouseDto = WarehouseDto.builder()
+                .name("Warehouse")
+                .location(new LocationDto(22.12345, 54.6688))
+                .items(List.of(new WarehouseItemDto(null, 30.0, new ItemDto(null, "Chocolate"))))
+                .build();
+        // when
+        Warehouse warehouse = warehouseMapper.toEntity(warehouseDto);
+        // then
+        Assertions.assertNull(warehouse.getId());
+        Assertions.assertEquals("Warehouse", warehouse.getName());
+        Assertions.assertEquals(new Location(null, 22.12345, 54.6688), warehouse.getLocation());
+        Assertions.assertEquals(List.of(new WarehouseItem(null, 30.0, new Item(null, "Chocolate"), null)),
+                warehouse.getItems());
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CartDto;
+import com.itechart.orderplanningproblem.dto.CartLineDto;
+import com.itechart.orderplanningproblem.dto.CreateCartDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CartServiceTest {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private StockIndex stockIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long nearWarehouseId;
+    private Long farWarehouseId;
+
+    @BeforeAll
+    void createWarehousesAndCustomer() {
+        nearWarehouseId = warehouseService.create(WarehouseDto.builder()
+                .name("Cart near warehouse")
+                .location(new LocationDto(80.0, -20.1))
+                .items(List.of(new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Cart tea").build()),
+                        new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Cart sugar").build())))
+                .build()).getId();
+        farWarehouseId = warehouseService.create(WarehouseDto.builder()
+                .name("Cart far warehouse")
+                .location(new LocationDto(80.0, -21.0))
+                .items(List.of(new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Cart tea").build()),
+                        new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Cart sugar").build()),
+                        new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Cart milk").build())))
+                .build()).getId();
+        customerId = customerService.create(CustomerDto.builder()
+                .name("Cart customer")
+                .location(new LocationDto(80.0, -20.0))
+                .build()).getId();
+    }
+
+    @Test
+    void CartOfItemsStockedTogetherOnlyFarther_Create_ShipAllLinesFromOneWarehouse()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        CreateCartDto cart = new CreateCartDto(customerId, List.of(line("Cart tea", 10.0),
+                line("Cart sugar", 10.0), line("Cart milk", 10.0), line("Cart tea", 5.0)));
+        // when
+        CartDto created = cartService.create(cart);
+        // then
+        Assertions.assertEquals(4, created.getLines().size());
+        Assertions.assertTrue(created.getLines().stream()
+                .allMatch(line -> farWarehouseId.equals(line.getWarehouse().getId())));
+        Assertions.assertEquals(35.0, stock("Cart tea", farWarehouseId));
+        Assertions.assertEquals(50.0, stock("Cart tea", nearWarehouseId));
+        Assertions.assertEquals(created.getLines().stream().map(OrderDto::getId).collect(Collectors.toSet()),
+                cartService.readById(created.getId()).getLines().stream()
+                        .map(OrderDto::getId)
+                        .collect(Collectors.toSet()));
+
+    }
+
+    @Test
+    void CartWithLineNoWarehouseCanShip_Create_ThrowUnprocessableEntityExceptionAndKeepStock() {
+        // given
+        CreateCartDto cart = new CreateCartDto(customerId, List.of(line("Cart sugar", 20.0),
+                line("Cart milk", 500.0)));
+        // then
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> cartService.create(cart));
+        Assertions.assertEquals(50.0, stock("Cart sugar", nearWarehouseId));
+
+    }
+
+    @Test
+    void CartThatDoesNotExist_ReadById_ThrowResourceNotFoundException() {
+        // given
+        Long cartId = 125035L;
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> cartService.readById(cartId));
+
+    }
+
+    private static CartLineDto line(final String itemName, final Double amount) {
+        return new CartLineDto(amount, ItemDto.builder().name(itemName).build());
+    }
+
+    private Double stock(final String itemName, final Long warehouseId) {
+        return WarehouseStock.amount(jdbcTemplate, stockIndex, itemName, warehouseId);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportResultDto;
+import com.itechart.orderplanningproblem.dto.CustomerImportStatus;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerImportServiceTest {
+
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private EntityManager entityManager;
+
+    private CustomerImportService customerImportService;
+
+    @BeforeEach
+    void createService() {
+        customerImportService = new CustomerImportService(customerService,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager, 2);
+    }
+
+    @Test
+    void CustomersWithInvalidAndDuplicateRows_ImportCustomers_ReportRowErrorsAndCreateOthers() {
+        // given
+        List<CustomerDto> customerDtos = List.of(customer("First customer"), customer("lowercase name"),
+                customer("First customer"), customer("Taken customer"));
+        // when
+        Mockito.when(customerService.createBatch(List.of(customer("First customer"), customer("Taken customer"))))
+                .thenReturn(List.of(createdCustomer(1L, "First customer")));
+        List<CustomerImportResultDto> results = customerImportService.importCustomers(customerDtos);
+        // then
+        Assertions.assertEquals(List.of(CustomerImportStatus.CREATED, CustomerImportStatus.INVALID,
+                CustomerImportStatus.DUPLICATE, CustomerImportStatus.DUPLICATE), statuses(results));
+        Assertions.assertEquals(1L, results.get(0).getId());
+
+    }
+
+    @Test
+    void SecondChunkFails_ImportCustomers_KeepFirstChunkCreated() {
+        // given
+        List<CustomerDto> customerDtos = List.of(customer("First customer"), customer("Second customer"),
+                customer("Third customer"));
+        // when
+        Mockito.when(customerService.createBatch(ArgumentMatchers.anyList()))
+                .thenReturn(List.of(createdCustomer(1L, "First customer"), createdCustomer(2L, "Second customer")))
+                .thenThrow(new IllegalStateException("Deadlock found when trying to get lock"));
+        List<CustomerImportResultDto> results = customerImportService.importCustomers(customerDtos);
+        // then
+        Assertions.assertEquals(List.of(CustomerImportStatus.CREATED, CustomerImportStatus.CREATED,
+                CustomerImportStatus.FAILED), statuses(results));
+        Mockito.verify(customerService, Mockito.times(2)).createBatch(ArgumentMatchers.anyList());
+
+    }
+
+    @Test
+    void CustomersInTwoChunks_ImportCustomers_ClearPersistenceContextAfterEveryChunk() {
+        // given
+        List<CustomerDto> customerDtos = List.of(customer("First customer"), customer("Second customer"),
+                customer("Third customer"));
+        // when
+        Mockito.when(customerService.createBatch(ArgumentMatchers.anyList()))
+                .thenReturn(List.of(createdCustomer(1L, "First customer"), createdCustomer(2L, "Second customer")))
+                .thenThrow(new IllegalStateException("Deadlock found when trying to get lock"));
+        customerImportService.importCustomers(customerDtos);
+        // then
+        InOrder inOrder = Mockito.inOrder(customerService, entityManager);
+        inOrder.verify(customerService).createBatch(ArgumentMatchers.anyList());
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(customerService).createBatch(ArgumentMatchers.anyList());
+        inOrder.verify(entityManager).clear();
+
+    }
+
+    private List<CustomerImportStatus> statuses(final List<CustomerImportResultDto> results) {
+        return results.stream()
+                .map(CustomerImportResultDto::getStatus)
+                .collect(Collectors.toList());
+    }
+
+    private CustomerDto customer(final String name) {
+        return CustomerDto.builder()
+                .name(name)
+                .location(new LocationDto(53.9, 27.56))
+                .build();
+    }
+
+    private CustomerDto createdCustomer(final Long id, final String name) {
+        CustomerDto customerDto = customer(name);
+        customerDto.setId(id);
+        return customerDto;
+    }
+
+}
@@ -1,18 +1,25 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itechart.orderplanningproblem.dto.CustomerDto;
 import com.itechart.orderplanningproblem.dto.LocationDto;
 import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Location;
+import com.itechart.orderplanningproblem.entity.Warehouse;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.CustomerMapper;
 import com.itechart.orderplanningproblem.repository.CustomerRepository;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseLocation;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -21,10 +28,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @ExtendWith(MockitoExtension.class)
 class CustomerServiceTest {
@@ -36,9 +45,19 @@ class CustomerServiceTest {
     @Mock
     private DistanceRepository distanceRepository;
     @Mock
-    private ObjectMapper objectMapper;
+    private CustomerMapper customerMapper;
+    @Mock
+    private WarehouseLocator warehouseLocator;
+    @Mock
+    private DistanceService distanceService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ReservationService reservationService;
     @InjectMocks
     private CustomerService customerService;
+    @Captor
+    private ArgumentCaptor<List<Distance>> distances;
 
     @Test
     void CustomerNameToEdit_EditCustomerWithIdThatDoesNotExist_ThrowResourceNotFoundException() {
@@ -118,7 +137,7 @@ class CustomerServiceTest {
         Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customerInDbById));
         Mockito.when(customerRepository.readByName(customerNewName)).thenReturn(Optional.empty());
         Mockito.when(customerRepository.save(customerInDbById)).thenReturn(customerInDbAfterNameWasChanged);
-        Mockito.when(objectMapper.convertValue(customerInDbAfterNameWasChanged, CustomerDto.class))
+        Mockito.when(customerMapper.toDto(customerInDbAfterNameWasChanged))
                 .thenReturn(customerDto);
         // then
         Assertions.assertEquals(customerDto, customerService.updateName(customerId, customerNewName));
@@ -163,7 +182,7 @@ class CustomerServiceTest {
                 .build();
         // when
         Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        Mockito.when(objectMapper.convertValue(customer, CustomerDto.class))
+        Mockito.when(customerMapper.toDto(customer))
                 .thenReturn(customerDto);
 
         // then
@@ -203,7 +222,7 @@ class CustomerServiceTest {
         Page<CustomerDto> customerDtoWithIdPage = new PageImpl<>(customerDtoList);
         // when
         Mockito.when(customerRepository.findAll(pageRequest)).thenReturn(customerPage);
-        Mockito.when(objectMapper.convertValue(customer, CustomerDto.class))
+        Mockito.when(customerMapper.toDto(customer))
                 .thenReturn(customerDto);
         // then
         Assertions.assertEquals(customerDtoWithIdPage, customerService.readPage(pageRequest));
@@ -246,12 +265,13 @@ class CustomerServiceTest {
                 .build();
         // when
         Mockito.when(customerRepository.readByName(customerName)).thenReturn(Optional.empty());
-        Mockito.when(objectMapper.convertValue(customerDtoToBeCreated, Customer.class))
+        Mockito.when(customerMapper.toEntity(customerDtoToBeCreated))
                 .thenReturn(customer);
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
         Mockito.when(warehouseRepository.findAll()).thenReturn(Collections.emptyList());
         Mockito.when(distanceRepository.saveAll(new ArrayList<>())).thenReturn(Collections.emptyList());
         Mockito.when(customerRepository.save(customer)).thenReturn(createdCustomer);
-        Mockito.when(objectMapper.convertValue(createdCustomer, CustomerDto.class))
+        Mockito.when(customerMapper.toDto(createdCustomer))
                 .thenReturn(createdCustomerDto);
 
         // then
@@ -259,4 +279,44 @@ class CustomerServiceTest {
 
     }
 
+    @Test
+    void CustomersWithTakenName_CreateBatch_CreateOthersWithDistanceToEveryWarehouse() {
+        // given
+        CustomerDto newCustomerDto = CustomerDto.builder()
+                .name("New customer")
+                .location(new LocationDto(53.9, 27.56))
+                .build();
+        CustomerDto takenCustomerDto = CustomerDto.builder()
+                .name("Taken customer")
+                .location(new LocationDto(52.1, 23.7))
+                .build();
+        Customer newCustomer = Customer.builder()
+                .name("New customer")
+                .location(new Location(null, 53.9, 27.56))
+                .build();
+        WarehouseLocation warehouseLocation = Mockito.mock(WarehouseLocation.class);
+        Warehouse warehouse = Warehouse.builder()
+                .id(7L)
+                .build();
+        // when
+        Mockito.when(customerRepository.findNamesByNameIn(List.of("New customer", "Taken customer")))
+                .thenReturn(Set.of("Taken customer"));
+        Mockito.when(customerMapper.toEntity(newCustomerDto)).thenReturn(newCustomer);
+        Mockito.when(customerRepository.saveAll(List.of(newCustomer))).thenReturn(List.of(newCustomer));
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
+        Mockito.when(warehouseLocation.getWarehouseId()).thenReturn(7L);
+        Mockito.when(warehouseLocation.getLatitude()).thenReturn(53.0);
+        Mockito.when(warehouseLocation.getLongitude()).thenReturn(27.0);
+        Mockito.when(warehouseRepository.findAllLocations()).thenReturn(List.of(warehouseLocation));
+        Mockito.when(entityManager.getReference(Warehouse.class, 7L)).thenReturn(warehouse);
+        Mockito.doAnswer(invocation -> ((double[]) invocation.getArgument(4))[0] = 105.0).when(distanceService)
+                .getDistancesByLatitudeAndLongitude(ArgumentMatchers.eq(53.9), ArgumentMatchers.eq(27.56),
+                        ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        customerService.createBatch(List.of(newCustomerDto, takenCustomerDto));
+        // then
+        Mockito.verify(distanceRepository).saveAll(distances.capture());
+        Assertions.assertEquals(List.of(new Distance(null, 105.0, newCustomer, warehouse)), distances.getValue());
+
+    }
+
 }
@@ -0,0 +1,140 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.DistanceJobDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.entity.DistanceJob;
+import com.itechart.orderplanningproblem.entity.DistanceJobStatus;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DistanceFanOutServiceTest {
+
+    @Autowired
+    private DistanceFanOutService distanceFanOutService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+
+    @BeforeAll
+    void createCustomers() {
+        for (int i = 0; i < 3; i++) {
+            Long id = customerService.create(CustomerDto.builder()
+                    .name("Fan out customer " + i)
+                    .location(new LocationDto(30.0 + i, 60.0))
+                    .build()).getId();
+            if (customerId == null) {
+                customerId = id;
+            }
+        }
+    }
+
+    @Test
+    void NewWarehouse_CreateWarehouse_CompleteJobAndMarkWarehouseReady() throws ResourceNotFoundException {
+        // given
+        WarehouseDto warehouseDto = warehouse("Fan out warehouse", "Fan out item");
+        // when
+        Long warehouseId = warehouseService.create(warehouseDto).getId();
+        DistanceJobDto job = distanceFanOutService.readJob(warehouseId);
+        // then
+        Assertions.assertEquals(DistanceJobStatus.COMPLETED, job.getStatus());
+        Assertions.assertEquals(customerCount(), job.getProcessedCustomers());
+        Assertions.assertEquals(customerCount(), distanceCount(warehouseId));
+        Assertions.assertTrue(isDistancesReady(warehouseId));
+
+    }
+
+    @Test
+    void InterruptedJob_ResumeUnfinishedJobs_WriteOnlyMissingDistances() throws ResourceNotFoundException {
+        // given
+        Long warehouseId = warehouseService.create(warehouse("Resumed warehouse", "Resumed item")).getId();
+        jdbcTemplate.update("delete from distance where warehouse_id = ? and customer_id > ?", warehouseId,
+                customerId);
+        jdbcTemplate.update("update distance_job set status = 'RUNNING', last_customer_id = ? where warehouse_id = ?",
+                customerId, warehouseId);
+        jdbcTemplate.update("update warehouse set distances_ready = false where id = ?", warehouseId);
+        // when
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> orderService.create(
+                new CreateOrderDto(1.0, ItemDto.builder().name("Resumed item").build(), customerId)));
+        distanceFanOutService.resumeUnfinishedJobs();
+        // then
+        Assertions.assertEquals(DistanceJobStatus.COMPLETED, distanceFanOutService.readJob(warehouseId).getStatus());
+        Assertions.assertEquals(customerCount(), distanceCount(warehouseId));
+        Assertions.assertTrue(isDistancesReady(warehouseId));
+        Assertions.assertEquals(warehouseId, orderService.create(new CreateOrderDto(1.0,
+                ItemDto.builder().name("Resumed item").build(), customerId)).getWarehouse().getId());
+
+    }
+
+    @Test
+    void WarehouseWithoutJob_ReadJob_ThrowResourceNotFoundException() {
+        // given
+        Long warehouseId = 125035L;
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> distanceFanOutService.readJob(warehouseId));
+
+    }
+
+    @Test
+    void FailureWithLongMessage_RecordFailure_FitMessageIntoJobColumn() throws ResourceNotFoundException {
+        // given
+        Long warehouseId = warehouseService.create(warehouse("Failed warehouse", "Failed item")).getId();
+        RuntimeException failure = new IllegalStateException("Deadlock found ".repeat(100));
+        // when
+        String message = DistanceFanOutService.failureMessage(failure);
+        jdbcTemplate.update("update distance_job set status = 'FAILED', message = ? where warehouse_id = ?",
+                message, warehouseId);
+        // then
+        Assertions.assertEquals(failure.getMessage().substring(0, DistanceJob.MESSAGE_LENGTH),
+                distanceFanOutService.readJob(warehouseId).getMessage());
+        Assertions.assertNull(DistanceFanOutService.failureMessage(new NullPointerException()));
+
+    }
+
+    private WarehouseDto warehouse(final String name, final String itemName) {
+        return WarehouseDto.builder()
+                .name(name)
+                .location(new LocationDto(31.0, 61.0))
+                .items(List.of(new WarehouseItemDto(null, 10.0, ItemDto.builder().name(itemName).build())))
+                .build();
+    }
+
+    private long customerCount() {
+        return jdbcTemplate.queryForObject("select count(*) from customer", Long.class);
+    }
+
+    private long distanceCount(final Long warehouseId) {
+        return jdbcTemplate.queryForObject("select count(*) from distance where warehouse_id = ?", Long.class,
+                warehouseId);
+    }
+
+    private boolean isDistancesReady(final Long warehouseId) {
+        return jdbcTemplate.queryForObject("select distances_ready from warehouse where id = ?", Boolean.class,
+                warehouseId);
+    }
+
+}
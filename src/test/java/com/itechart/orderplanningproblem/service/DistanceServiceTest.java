@@ -1,6 +1,5 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itechart.orderplanningproblem.dto.CustomerDto;
 import com.itechart.orderplanningproblem.dto.DistanceDto;
 import com.itechart.orderplanningproblem.dto.LocationDto;
@@ -10,6 +9,7 @@ import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Location;
 import com.itechart.orderplanningproblem.entity.Warehouse;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.mapper.DistanceMapper;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -29,7 +29,7 @@ class DistanceServiceTest {
     private DistanceRepository distanceRepository;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private DistanceMapper distanceMapper;
 
     @InjectMocks
     private DistanceService distanceService;
@@ -50,6 +50,25 @@ class DistanceServiceTest {
 
     }
 
+    @Test
+    void Points_CalculateDistancesFromOrigin_ReturnSameDistancesAsSinglePairCalculation() {
+        // given
+        double originLatitude = 55.0055;
+        double originLongitude = 24.454732;
+        double[] latitudes = {22.12345, -33.8688, 55.0055, 89.9};
+        double[] longitudes = {54.6688, 151.2093, 24.454732, -179.9};
+        double[] distances = new double[latitudes.length];
+        // when
+        distanceService.getDistancesByLatitudeAndLongitude(originLatitude, originLongitude,
+                latitudes, longitudes, distances);
+        // then
+        for (int i = 0; i < latitudes.length; i++) {
+            Assertions.assertEquals(distanceService.getDistanceByLatitudeAndLongitude(
+                    originLatitude, originLongitude, latitudes[i], longitudes[i]), distances[i]);
+        }
+
+    }
+
     @Test
     void DistanceId_FindByIdDistanceThatDoesNotExist_ThrowResourceNotFoundException() {
         // given
@@ -118,7 +137,7 @@ class DistanceServiceTest {
                 .build();
         // when
         Mockito.when(distanceRepository.findById(distanceId)).thenReturn(Optional.of(distance));
-        Mockito.when(objectMapper.convertValue(distance, DistanceDto.class))
+        Mockito.when(distanceMapper.toDto(distance))
                 .thenReturn(distanceDto);
 
         // then
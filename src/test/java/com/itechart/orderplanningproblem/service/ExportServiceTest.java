@@ -0,0 +1,113 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private OrderDto exportedOrder;
+
+    @BeforeAll
+    void createWarehouseAndOrder() throws ResourceNotFoundException {
+        warehouseService.create(WarehouseDto.builder()
+                .name("Exported warehouse")
+                .location(new LocationDto(41.0, 12.0))
+                .items(List.of(new WarehouseItemDto(null, 50.0, ItemDto.builder().name("Exported item").build())))
+                .build());
+        Long customerId = customerService.create(CustomerDto.builder()
+                .name("Exported customer")
+                .location(new LocationDto(41.5, 12.5))
+                .build()).getId();
+        exportedOrder = orderService.create(new CreateOrderDto(5.0,
+                ItemDto.builder().name("Exported item").build(), customerId));
+    }
+
+    @Test
+    void Orders_ExportOrders_WriteOneJsonLinePerRow() throws IOException {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // when
+        exportService.exportOrders(outputStream, false);
+        List<JsonNode> rows = parse(outputStream.toByteArray());
+        // then
+        Assertions.assertEquals(jdbcTemplate.queryForObject("select count(*) from item_order", Long.class),
+                rows.size());
+        JsonNode row = rows.stream()
+                .filter(node -> node.get("id").asLong() == exportedOrder.getId())
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertEquals("Exported item", row.get("itemName").asText());
+        Assertions.assertEquals(5.0, row.get("amount").asDouble());
+
+    }
+
+    @Test
+    void WarehouseItems_ExportWarehouseItemsWithGzip_WriteGzippedJsonLines() throws IOException {
+        // given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // when
+        exportService.exportWarehouseItems(outputStream, true);
+        List<JsonNode> rows;
+        try (GZIPInputStream inputStream = new GZIPInputStream(
+                new ByteArrayInputStream(outputStream.toByteArray()))) {
+            rows = parse(inputStream.readAllBytes());
+        }
+        // then
+        Assertions.assertEquals(jdbcTemplate.queryForObject("select count(*) from warehouse_item", Long.class),
+                rows.size());
+        Assertions.assertTrue(rows.stream().anyMatch(row -> row.get("itemName").asText().equals("Exported item")
+                && row.get("amount").asDouble() == 45.0));
+
+    }
+
+    private List<JsonNode> parse(final byte[] ndjson) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : new String(ndjson, StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+}
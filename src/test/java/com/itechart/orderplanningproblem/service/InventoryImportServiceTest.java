@@ -0,0 +1,122 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.InventoryImportFormat;
+import com.itechart.orderplanningproblem.dto.InventoryImportReportDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentResultDto;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentStatus;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceTest {
+
+    @Mock
+    private StockAdjustmentService stockAdjustmentService;
+    @Mock
+    private EntityManager entityManager;
+
+    private InventoryImportService inventoryImportService;
+
+    @BeforeEach
+    void createService() {
+        inventoryImportService = new InventoryImportService(stockAdjustmentService,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager, new ObjectMapper(),
+                new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void CsvWithHeader_ImportInventory_ApplyLinesInChunks() throws Exception {
+        // given
+        InputStream csv = text("warehouseId,item,amount\n1,Chocolate,10\n1,Milk,5\n2,\"Chocolate\",7,put\n");
+        // when
+        Mockito.when(stockAdjustmentService.adjust(ArgumentMatchers.anyList())).then(invocation -> applied(
+                invocation.getArgument(0)));
+        InventoryImportReportDto report = inventoryImportService.importInventory(csv, InventoryImportFormat.CSV);
+        // then
+        Mockito.verify(stockAdjustmentService).adjust(List.of(line(1L, "Chocolate", 10.0), line(1L, "Milk", 5.0)));
+        Mockito.verify(stockAdjustmentService).adjust(List.of(line(2L, "Chocolate", 7.0)));
+        Assertions.assertEquals(3, report.getLines());
+        Assertions.assertEquals(3, report.getApplied());
+        Assertions.assertEquals(2, report.getChunks().size());
+        Assertions.assertEquals(4, report.getChunks().get(1).getFirstLine());
+
+    }
+
+    @Test
+    void SecondChunkFails_ImportInventory_KeepFirstChunkCommitted() throws Exception {
+        // given
+        InputStream csv = text("1,Chocolate,10\n1,Milk,5\n2,Chocolate,7\n");
+        // when
+        Mockito.when(stockAdjustmentService.adjust(ArgumentMatchers.anyList()))
+                .then(invocation -> applied(invocation.getArgument(0)))
+                .thenThrow(new IllegalStateException("Lock wait timeout exceeded"));
+        InventoryImportReportDto report = inventoryImportService.importInventory(csv, InventoryImportFormat.CSV);
+        // then
+        Assertions.assertTrue(report.getChunks().get(0).isCommitted());
+        Assertions.assertFalse(report.getChunks().get(1).isCommitted());
+        Assertions.assertEquals(2, report.getApplied());
+        Assertions.assertEquals(1, report.getFailed());
+
+    }
+
+    @Test
+    void NdjsonWithInvalidLines_ImportInventory_RejectInvalidLinesAndApplyOthers() throws Exception {
+        // given
+        InputStream ndjson = text("{\"warehouseId\":1,\"amount\":10,\"item\":{\"name\":\"Chocolate\"}}\n"
+                + "{\"warehouseId\":1,\"amount\":-1,\"item\":{\"name\":\"Milk\"}}\n"
+                + "not json\n");
+        // when
+        Mockito.when(stockAdjustmentService.adjust(ArgumentMatchers.anyList())).then(invocation -> applied(
+                invocation.getArgument(0)));
+        InventoryImportReportDto report = inventoryImportService.importInventory(ndjson,
+                InventoryImportFormat.NDJSON);
+        // then
+        Mockito.verify(stockAdjustmentService).adjust(List.of(line(1L, "Chocolate", 10.0)));
+        Assertions.assertEquals(1, report.getApplied());
+        Assertions.assertEquals(2, report.getRejected());
+        Assertions.assertEquals(List.of(2L, 3L), report.getErrors().stream()
+                .map(StockAdjustmentResultDto::getLine)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(StockAdjustmentStatus.INVALID, report.getErrors().get(0).getStatus());
+
+    }
+
+    private List<StockAdjustmentResultDto> applied(final List<WarehouseItemChangeAmountDto> lines) {
+        return IntStream.range(0, lines.size())
+                .mapToObj(i -> StockAdjustmentResultDto.builder()
+                        .line(i)
+                        .status(StockAdjustmentStatus.APPLIED)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private WarehouseItemChangeAmountDto line(final Long warehouseId, final String itemName, final Double amount) {
+        return new WarehouseItemChangeAmountDto(warehouseId, amount, ItemDto.builder().name(itemName).build(),
+                Operation.PUT);
+    }
+
+    private InputStream text(final String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
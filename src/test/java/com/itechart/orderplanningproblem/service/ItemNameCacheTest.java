@@ -0,0 +1,107 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameCacheTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemNameCache itemNameCache;
+
+    @BeforeEach
+    void createCache() {
+        itemNameCache = new ItemNameCache(itemRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void ItemName_FindByNameTwice_ResolveSecondTimeById() {
+        // given
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        // when
+        Mockito.when(itemRepository.readByName("Chocolate")).thenReturn(Optional.of(item));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        itemNameCache.findByName("Chocolate");
+        // then
+        Assertions.assertEquals(Optional.of(item), itemNameCache.findByName("Chocolate"));
+        Mockito.verify(itemRepository, Mockito.times(1)).readByName("Chocolate");
+
+    }
+
+    @Test
+    void CachedItemRenamedElsewhere_FindByName_DropStaleIdAndQueryByName() {
+        // given
+        Item renamedItem = Item.builder()
+                .id(1L)
+                .name("Dark chocolate")
+                .build();
+        // when
+        Mockito.when(itemRepository.readByName("Chocolate"))
+                .thenReturn(Optional.of(Item.builder().id(1L).name("Chocolate").build()))
+                .thenReturn(Optional.empty());
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(renamedItem));
+        itemNameCache.findByName("Chocolate");
+        // then
+        Assertions.assertTrue(itemNameCache.findByName("Chocolate").isEmpty());
+        Mockito.verify(itemRepository, Mockito.times(2)).readByName("Chocolate");
+
+    }
+
+    @Test
+    void EvictedItemName_FindByName_QueryByName() {
+        // given
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        // when
+        Mockito.when(itemRepository.readByName("Chocolate")).thenReturn(Optional.of(item));
+        itemNameCache.findByName("Chocolate");
+        itemNameCache.evict("Chocolate");
+        itemNameCache.findByName("Chocolate");
+        // then
+        Mockito.verify(itemRepository, Mockito.times(2)).readByName("Chocolate");
+        Mockito.verify(itemRepository, Mockito.never()).findById(1L);
+
+    }
+
+    @Test
+    void CachedAndUnknownItemNames_FindAllByName_QueryOnlyUnknownNames() {
+        // given
+        Item chocolate = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Item coffee = Item.builder()
+                .id(2L)
+                .name("Coffee")
+                .build();
+        // when
+        Mockito.when(itemRepository.readByName("Chocolate")).thenReturn(Optional.of(chocolate));
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(chocolate));
+        Mockito.when(itemRepository.findByNameIn(List.of("Coffee"))).thenReturn(List.of(coffee));
+        itemNameCache.findByName("Chocolate");
+        // then
+        Assertions.assertEquals(Map.of("Chocolate", chocolate, "Coffee", coffee),
+                itemNameCache.findAllByName(List.of("Chocolate", "Coffee")));
+
+    }
+
+}
@@ -1,10 +1,10 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itechart.orderplanningproblem.dto.ItemDto;
 import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
 import com.itechart.orderplanningproblem.repository.ItemRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -28,7 +28,13 @@ class ItemServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private ItemMapper itemMapper;
+
+    @Mock
+    private ItemNameCache itemNameCache;
+
+    @Mock
+    private ReservationService reservationService;
 
     @InjectMocks
     private ItemService itemService;
@@ -87,10 +93,29 @@ class ItemServiceTest {
         Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.of(itemInDbById));
         Mockito.when(itemRepository.readByName(itemNewName)).thenReturn(Optional.empty());
         Mockito.when(itemRepository.save(itemInDbById)).thenReturn(itemInDbAfterNameWasChanged);
-        Mockito.when(objectMapper.convertValue(itemInDbAfterNameWasChanged, ItemDto.class))
+        Mockito.when(itemMapper.toDto(itemInDbAfterNameWasChanged))
                 .thenReturn(itemDto);
         // then
         Assertions.assertEquals(itemDto, itemService.updateName(itemId, itemNewName));
+        Mockito.verify(itemNameCache).evict("Old item name");
+
+    }
+
+    @Test
+    void ItemId_DeleteById_EvictItemName() {
+        // given
+        Long itemId = 1L;
+        Item item = Item.builder()
+                .id(itemId)
+                .name("Chocolate")
+                .build();
+        // when
+        Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        itemService.deleteById(itemId);
+        // then
+        Mockito.verify(reservationService).releaseByItemId(itemId);
+        Mockito.verify(itemRepository).deleteById(itemId);
+        Mockito.verify(itemNameCache).evict("Chocolate");
 
     }
 
@@ -120,7 +145,7 @@ class ItemServiceTest {
                 .build();
         // when
         Mockito.when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        Mockito.when(objectMapper.convertValue(item, ItemDto.class))
+        Mockito.when(itemMapper.toDto(item))
                 .thenReturn(itemDto);
 
         // then
@@ -148,7 +173,7 @@ class ItemServiceTest {
         Page<ItemDto> itemDtoWithIdPage = new PageImpl<>(itemDtoList);
         // when
         Mockito.when(itemRepository.findAll(pageRequest)).thenReturn(itemPage);
-        Mockito.when(objectMapper.convertValue(item, ItemDto.class))
+        Mockito.when(itemMapper.toDto(item))
                 .thenReturn(itemDto);
         // then
         Assertions.assertEquals(itemDtoWithIdPage, itemService.readPage(pageRequest));
@@ -176,10 +201,10 @@ class ItemServiceTest {
                 .build();
         // when
         Mockito.when(itemRepository.readByName(itemName)).thenReturn(Optional.empty());
-        Mockito.when(objectMapper.convertValue(itemDtoToBeCreated, Item.class))
+        Mockito.when(itemMapper.toEntity(itemDtoToBeCreated))
                 .thenReturn(item);
         Mockito.when(itemRepository.save(item)).thenReturn(createdItem);
-        Mockito.when(objectMapper.convertValue(createdItem, ItemDto.class))
+        Mockito.when(itemMapper.toDto(createdItem))
                 .thenReturn(createdItemDto);
 
         // then
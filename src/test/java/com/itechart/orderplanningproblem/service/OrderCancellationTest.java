@@ -0,0 +1,99 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderCancellationTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private StockIndex stockIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long warehouseId;
+
+    @BeforeAll
+    void createWarehouseAndCustomer() {
+        warehouseId = warehouseService.create(WarehouseDto.builder()
+                .name("Cancelling warehouse")
+                .location(new LocationDto(-80.0, 10.0))
+                .items(List.of(new WarehouseItemDto(null, 30.0, ItemDto.builder().name("Cancelled item").build()),
+                        new WarehouseItemDto(null, 100.0, ItemDto.builder().name("Kept item").build())))
+                .build()).getId();
+        customerId = customerService.create(CustomerDto.builder()
+                .name("Cancelling customer")
+                .location(new LocationDto(-80.1, 10.1))
+                .build()).getId();
+    }
+
+    @Test
+    void OrdersThatEmptiedStock_CancelBatch_RecreateRowAndRestoreWholeAmount()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long first = order("Cancelled item", 10.0);
+        Long second = order("Cancelled item", 20.0);
+        Long kept = order("Kept item", 40.0);
+        Assertions.assertNull(stock("Cancelled item"));
+        // when
+        orderService.cancelBatch(List.of(first, second, kept));
+        // then
+        Assertions.assertEquals(30.0, stock("Cancelled item"));
+        Assertions.assertEquals(100.0, stock("Kept item"));
+        Assertions.assertEquals(0L, jdbcTemplate.queryForObject("select count(*) from item_order where id in (?, ?, ?)",
+                Long.class, first, second, kept));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> orderService.cancel(first));
+        Assertions.assertEquals(30.0, stock("Cancelled item"));
+
+    }
+
+    @Test
+    void BatchWithOrderThatDoesNotExist_CancelBatch_KeepOtherOrdersAndStock()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long kept = order("Kept item", 5.0);
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> orderService.cancelBatch(List.of(kept, 125035L)));
+        Assertions.assertEquals(95.0, stock("Kept item"));
+        orderService.cancel(kept);
+        Assertions.assertEquals(100.0, stock("Kept item"));
+
+    }
+
+    private Long order(final String itemName, final Double amount)
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        return orderService.create(new CreateOrderDto(amount, ItemDto.builder().name(itemName).build(), customerId))
+                .getId();
+    }
+
+    private Double stock(final String itemName) {
+        return WarehouseStock.amount(jdbcTemplate, stockIndex, itemName, warehouseId);
+    }
+
+}
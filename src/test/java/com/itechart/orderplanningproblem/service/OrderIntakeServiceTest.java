@@ -0,0 +1,188 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.OrderTicketDto;
+import com.itechart.orderplanningproblem.dto.OrderTicketStatus;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.ServiceUnavailableException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderIntakeService orderIntakeService;
+
+    @AfterEach
+    void stopWorker() throws InterruptedException {
+        orderIntakeService.stop();
+    }
+
+    @Test
+    void OrderToCreate_SubmitWhenAsyncIntakeIsDisabled_ThrowServiceUnavailableException() {
+        // given
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, false, 10, 10, 10, 60000, false);
+        // then
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> orderIntakeService.submit(orderToCreate(1L)));
+
+    }
+
+    @Test
+    void OrderToCreate_SubmitOrder_CompleteTicketWithAllocatedOrder() throws Exception {
+        // given
+        CreateOrderDto createOrderDto = orderToCreate(1L);
+        OrderDto createdOrderDto = OrderDto.builder()
+                .id(1L)
+                .amount(createOrderDto.getAmount())
+                .build();
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 10, 10, 10, 60000, false);
+        // when
+        Mockito.when(orderService.createEach(List.of(createOrderDto))).thenReturn(List.of(createdOrderDto));
+        orderIntakeService.start();
+        OrderTicketDto acceptedTicket = orderIntakeService.submit(createOrderDto);
+        OrderTicketDto completedTicket = orderIntakeService
+                .awaitTicket(acceptedTicket.getTicketId(), Duration.ofSeconds(10)).get();
+        // then
+        Assertions.assertEquals(OrderTicketStatus.ACCEPTED, acceptedTicket.getStatus());
+        Assertions.assertEquals(OrderTicketStatus.COMPLETED, completedTicket.getStatus());
+        Assertions.assertEquals(List.of(createdOrderDto), completedTicket.getOrders());
+        Assertions.assertEquals(1L, meterRegistry.get("orders.intake.latency").timer().count());
+
+    }
+
+    @Test
+    void OrdersToCreate_BatchCanNotBeServed_FailOnlyOrdersThatCanNotBeServed() throws Exception {
+        // given
+        CreateOrderDto servedOrderDto = orderToCreate(1L);
+        CreateOrderDto unservedOrderDto = orderToCreate(2L);
+        OrderDto createdOrderDto = OrderDto.builder()
+                .id(1L)
+                .amount(servedOrderDto.getAmount())
+                .build();
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 10, 10, 1000, 60000, false);
+        // when
+        Mockito.when(orderService.createEach(ArgumentMatchers.anyList()))
+                .thenThrow(new UnprocessableEntityException("Not enough stock"));
+        Mockito.lenient().when(orderService.create(servedOrderDto)).thenReturn(createdOrderDto);
+        Mockito.lenient().when(orderService.create(unservedOrderDto))
+                .thenThrow(new UnprocessableEntityException("Not enough stock"));
+        OrderTicketDto servedTicket = orderIntakeService.submit(servedOrderDto);
+        OrderTicketDto unservedTicket = orderIntakeService.submit(unservedOrderDto);
+        orderIntakeService.start();
+        // then
+        Assertions.assertEquals(OrderTicketStatus.COMPLETED, orderIntakeService
+                .awaitTicket(servedTicket.getTicketId(), Duration.ofSeconds(10)).get().getStatus());
+        Assertions.assertEquals(OrderTicketStatus.FAILED, orderIntakeService
+                .awaitTicket(unservedTicket.getTicketId(), Duration.ofSeconds(10)).get().getStatus());
+
+    }
+
+    @Test
+    void OrderToCreate_SubmitOrderWithSplitEnabled_CompleteTicketWithAllParts() throws Exception {
+        // given
+        CreateOrderDto createOrderDto = orderToCreate(1L);
+        List<OrderDto> parts = List.of(OrderDto.builder().id(1L).amount(10.0).build(),
+                OrderDto.builder().id(2L).amount(20.0).build());
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 10, 10, 10, 60000, true);
+        // when
+        Mockito.when(orderService.createBatchPerOrder(List.of(createOrderDto))).thenReturn(List.of(parts));
+        orderIntakeService.start();
+        OrderTicketDto acceptedTicket = orderIntakeService.submit(createOrderDto);
+        // then
+        Assertions.assertEquals(parts, orderIntakeService
+                .awaitTicket(acceptedTicket.getTicketId(), Duration.ofSeconds(10)).get().getOrders());
+        Mockito.verify(orderService, Mockito.never()).createEach(ArgumentMatchers.anyList());
+
+    }
+
+    @Test
+    void QueuedOrder_Stop_FailTicketAndRejectNewOrders() throws Exception {
+        // given
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 10, 10, 10, 60000, false);
+        OrderTicketDto acceptedTicket = orderIntakeService.submit(orderToCreate(1L));
+        // when
+        orderIntakeService.stop();
+        // then
+        Assertions.assertEquals(OrderTicketStatus.FAILED,
+                orderIntakeService.readTicket(acceptedTicket.getTicketId()).getStatus());
+        Assertions.assertThrows(ServiceUnavailableException.class,
+                () -> orderIntakeService.submit(orderToCreate(2L)));
+        Mockito.verifyNoInteractions(orderService);
+
+    }
+
+    @Test
+    void OrdersSubmittedConcurrently_Stop_CompleteEveryAcceptedTicket() throws Exception {
+        // given
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 100000, 10, 10, 60000,
+                false);
+        List<String> acceptedTicketIds = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch submitting = new CountDownLatch(4);
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            submitters.execute(() -> {
+                submitting.countDown();
+                try {
+                    while (true) {
+                        acceptedTicketIds.add(orderIntakeService.submit(orderToCreate(1L)).getTicketId());
+                    }
+                } catch (ServiceUnavailableException e) {
+                    // the intake is stopped
+                }
+            });
+        }
+        submitting.await();
+        // when
+        orderIntakeService.stop();
+        submitters.shutdown();
+        Assertions.assertTrue(submitters.awaitTermination(10, TimeUnit.SECONDS));
+        // then
+        Assertions.assertFalse(acceptedTicketIds.isEmpty());
+        for (String ticketId : acceptedTicketIds) {
+            Assertions.assertEquals(OrderTicketStatus.FAILED, orderIntakeService.readTicket(ticketId).getStatus());
+        }
+
+    }
+
+    @Test
+    void TicketId_ReadTicketThatDoesNotExist_ThrowResourceNotFoundException() {
+        // given
+        orderIntakeService = new OrderIntakeService(orderService, meterRegistry, true, 10, 10, 10, 60000, false);
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> orderIntakeService.readTicket("unknown"));
+
+    }
+
+    private CreateOrderDto orderToCreate(final Long customerId) {
+        return CreateOrderDto.builder()
+                .item(ItemDto.builder().name("Chocolate").build())
+                .amount(30.0)
+                .customerId(customerId)
+                .build();
+    }
+
+}
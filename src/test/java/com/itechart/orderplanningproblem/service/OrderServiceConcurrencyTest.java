@@ -0,0 +1,93 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.repository.OrderRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceConcurrencyTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private WarehouseItemRepository warehouseItemRepository;
+
+    @Test
+    void ParallelOrders_CreateMoreOrdersThanStock_DoNotOversell() throws Exception {
+        // given
+        double stock = 100.0;
+        int threads = 8;
+        int ordersPerThread = 25;
+        ItemDto item = ItemDto.builder()
+                .name("Concurrent item")
+                .build();
+        WarehouseDto warehouse = warehouseService.create(WarehouseDto.builder()
+                .name("Concurrent warehouse")
+                .location(new LocationDto(22.12345, 54.6688))
+                .items(List.of(new WarehouseItemDto(null, stock, item)))
+                .build());
+        CustomerDto customer = customerService.create(CustomerDto.builder()
+                .name("Concurrent customer")
+                .location(new LocationDto(55.0055, 24.454732))
+                .build());
+        Long itemId = warehouse.getItems().get(0).getItem().getId();
+        CreateOrderDto createOrderDto = new CreateOrderDto(1.0, item, customer.getId());
+        Callable<Integer> placeOrders = () -> {
+            int placed = 0;
+            for (int i = 0; i < ordersPerThread; i++) {
+                try {
+                    orderService.create(createOrderDto);
+                    placed++;
+                } catch (UnprocessableEntityException e) {
+                    // out of stock
+                }
+            }
+            return placed;
+        };
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(placeOrders));
+        }
+        int placedOrders = 0;
+        for (Future<Integer> result : results) {
+            placedOrders += result.get();
+        }
+        executor.shutdown();
+        // then
+        Assertions.assertEquals((int) stock, placedOrders);
+        Assertions.assertEquals(stock, orderRepository.findAll().stream()
+                .filter(order -> order.getItem().getId().equals(itemId))
+                .mapToDouble(order -> order.getAmount())
+                .sum());
+        Assertions.assertTrue(warehouseItemRepository.findAmount(warehouse.getId(), itemId).isEmpty());
+
+    }
+
+}
@@ -1,6 +1,6 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.CursorPageDto;
 import com.itechart.orderplanningproblem.dto.CustomerDto;
 import com.itechart.orderplanningproblem.dto.ItemDto;
 import com.itechart.orderplanningproblem.dto.LocationDto;
@@ -8,23 +8,26 @@ import com.itechart.orderplanningproblem.dto.OrderDto;
 import com.itechart.orderplanningproblem.dto.CreateOrderDto;
 import com.itechart.orderplanningproblem.dto.WarehouseDto;
 import com.itechart.orderplanningproblem.entity.Customer;
-import com.itechart.orderplanningproblem.entity.Distance;
 import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.entity.Location;
 import com.itechart.orderplanningproblem.entity.Order;
 import com.itechart.orderplanningproblem.entity.Warehouse;
-import com.itechart.orderplanningproblem.entity.WarehouseItem;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.mapper.OrderMapper;
 import com.itechart.orderplanningproblem.repository.CustomerRepository;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
-import com.itechart.orderplanningproblem.repository.ItemRepository;
 import com.itechart.orderplanningproblem.repository.OrderRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.allocation.AllocationStrategies;
+import com.itechart.orderplanningproblem.service.allocation.NearestFirstAllocationStrategy;
+import com.itechart.orderplanningproblem.service.distance.NearestWarehouse;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -35,7 +38,10 @@ import org.springframework.data.domain.PageRequest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
@@ -44,16 +50,29 @@ class OrderServiceTest {
     @Mock
     private CustomerRepository customerRepository;
     @Mock
-    private ItemRepository itemRepository;
+    private ItemNameCache itemNameCache;
     @Mock
     private WarehouseRepository warehouseRepository;
     @Mock
     private DistanceRepository distanceRepository;
     @Mock
-    private ObjectMapper objectMapper;
-    @InjectMocks
+    private WarehouseLocator warehouseLocator;
+    @Mock
+    private StockIndex stockIndex;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private OrderMapper orderMapper;
     private OrderService orderService;
 
+    @BeforeEach
+    void createOrderService() {
+        orderService = new OrderService(orderRepository, itemNameCache, customerRepository, warehouseRepository,
+                warehouseLocator, stockIndex, stockService, new AllocationStrategies(List.of(
+                        new NearestFirstAllocationStrategy(distanceRepository, warehouseLocator, stockIndex,
+                                stockService)), NearestFirstAllocationStrategy.NAME), orderMapper);
+    }
+
     @Test
     void OrderId_FindByIdOrderThatDoesNotExist_ThrowResourceNotFoundException() {
         // given
@@ -140,7 +159,7 @@ class OrderServiceTest {
                 .build();
         // when
         Mockito.when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        Mockito.when(objectMapper.convertValue(order, OrderDto.class))
+        Mockito.when(orderMapper.toDto(order))
                 .thenReturn(orderDto);
 
         // then
@@ -228,13 +247,48 @@ class OrderServiceTest {
         Page<OrderDto> orderDtoWithIdPage = new PageImpl<>(orderDtoList);
         // when
         Mockito.when(orderRepository.findAll(pageRequest)).thenReturn(orderPage);
-        Mockito.when(objectMapper.convertValue(order, OrderDto.class))
+        Mockito.when(orderMapper.toDto(order))
                 .thenReturn(orderDto);
         // then
         Assertions.assertEquals(orderDtoWithIdPage, orderService.readPage(pageRequest));
 
     }
 
+    @Test
+    void OrdersMoreThanPageSize_ReadCursorPages_ReturnPagesLinkedByCursor() {
+        // given
+        int size = 2;
+        Order thirdOrder = Order.builder().id(30L).build();
+        Order secondOrder = Order.builder().id(20L).build();
+        Order firstOrder = Order.builder().id(10L).build();
+        OrderDto thirdOrderDto = OrderDto.builder().id(30L).build();
+        OrderDto secondOrderDto = OrderDto.builder().id(20L).build();
+        OrderDto firstOrderDto = OrderDto.builder().id(10L).build();
+        // when
+        Mockito.when(orderRepository.findByIdLessThanOrderByIdDesc(Long.MAX_VALUE, PageRequest.of(0, size + 1)))
+                .thenReturn(List.of(thirdOrder, secondOrder, firstOrder));
+        Mockito.when(orderRepository.findByIdLessThanOrderByIdDesc(20L, PageRequest.of(0, size + 1)))
+                .thenReturn(List.of(firstOrder));
+        Mockito.when(orderMapper.toDto(thirdOrder)).thenReturn(thirdOrderDto);
+        Mockito.when(orderMapper.toDto(secondOrder)).thenReturn(secondOrderDto);
+        Mockito.when(orderMapper.toDto(firstOrder)).thenReturn(firstOrderDto);
+        CursorPageDto<OrderDto> firstPage = orderService.readCursorPage(null, size);
+        CursorPageDto<OrderDto> secondPage = orderService.readCursorPage(firstPage.getNextCursor(), size);
+        // then
+        Assertions.assertEquals(List.of(thirdOrderDto, secondOrderDto), firstPage.getContent());
+        Assertions.assertEquals(List.of(firstOrderDto), secondPage.getContent());
+        Assertions.assertNull(secondPage.getNextCursor());
+
+    }
+
+    @Test
+    void InvalidCursor_ReadCursorPage_ThrowUnprocessableEntityException() {
+        // then
+        Assertions.assertThrows(UnprocessableEntityException.class,
+                () -> orderService.readCursorPage("not a cursor", 20));
+
+    }
+
     @Test
     void OrderToCreate_CreateOrder_ReturnCreatedOrder() throws UnprocessableEntityException, ResourceNotFoundException {
         // given
@@ -287,33 +341,13 @@ class OrderServiceTest {
                 .location(warehouseLocation)
                 .items(new ArrayList<>())
                 .build();
-        Warehouse emptyWarehouse = Warehouse.builder()
-                .id(1L)
-                .name("Warehouse")
-                .location(warehouseLocation)
-                .items(new ArrayList<>())
-                .build();
-        WarehouseItem warehouseItem = WarehouseItem.builder()
-                .id(1L)
-                .item(item)
-                .amount(amount)
-                .warehouse(warehouse)
-                .build();
-        warehouse.getItems().add(warehouseItem);
-        List<Warehouse> warehouseList = new ArrayList<>();
-        warehouseList.add(warehouse);
+        WarehouseDistance warehouseDistance = Mockito.mock(WarehouseDistance.class);
         WarehouseDto warehouseDto = WarehouseDto.builder()
                 .id(1L)
                 .name("Warehouse")
                 .location(warehouseLocationDto)
                 .items(new ArrayList<>())
                 .build();
-        Distance distance = Distance.builder()
-                .id(1L)
-                .distanceValue(distanceValue)
-                .customer(customer)
-                .warehouse(warehouse)
-                .build();
         Order order = Order.builder()
                 .item(item)
                 .amount(amount)
@@ -343,18 +377,274 @@ class OrderServiceTest {
                 .distance(distanceValue)
                 .build();
         // when
-        Mockito.when(itemRepository.readByName(itemName)).thenReturn(Optional.of(item));
+        Mockito.when(itemNameCache.findByName(itemName)).thenReturn(Optional.of(item));
         Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        Mockito.when(warehouseRepository.findWarehouseForCustomer(customerId)).thenReturn(warehouseList);
-        Mockito.when(warehouseRepository.save(emptyWarehouse)).thenReturn(emptyWarehouse);
-        Mockito.when(distanceRepository.findDistanceByCustomerIdAndWarehouseId(
-                order.getCustomer().getId(), warehouse.getId())).thenReturn(distance);
+        Mockito.when(stockIndex.findStock(item.getId())).thenReturn(Map.of(warehouse.getId(), amount));
+        Mockito.when(warehouseDistance.getWarehouseId()).thenReturn(warehouse.getId());
+        Mockito.when(warehouseDistance.getDistanceValue()).thenReturn(distanceValue);
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer))
+                .thenReturn(List.of(warehouseDistance).iterator());
+        Mockito.when(stockService.decreaseAmount(warehouse.getId(), item.getId(), amount)).thenReturn(true);
+        Mockito.when(warehouseRepository.findWithItemsById(warehouse.getId())).thenReturn(Optional.of(warehouse));
         Mockito.when(orderRepository.save(order)).thenReturn(createdOrder);
-        Mockito.when(objectMapper.convertValue(createdOrder, OrderDto.class))
+        Mockito.when(orderMapper.toDto(createdOrder))
                 .thenReturn(createdOrderDto);
 
         // then
         Assertions.assertEquals(createdOrderDto, orderService.create(orderDtoToBeCreated));
 
     }
+
+    @Test
+    void OrderToCreate_CreateOrderWithDistanceTable_TakeNearestStockedWarehouseFromOneQuery()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long customerId = 1L;
+        Double amount = 30.0;
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Customer customer = Customer.builder()
+                .id(customerId)
+                .name("Customer")
+                .build();
+        Warehouse warehouse = Warehouse.builder()
+                .id(2L)
+                .name("Warehouse")
+                .items(new ArrayList<>())
+                .build();
+        WarehouseDistance warehouseDistance = Mockito.mock(WarehouseDistance.class);
+        Order order = Order.builder()
+                .item(item)
+                .amount(amount)
+                .customer(customer)
+                .warehouse(warehouse)
+                .distance(12.5)
+                .build();
+        OrderDto createdOrderDto = OrderDto.builder()
+                .amount(amount)
+                .distance(12.5)
+                .build();
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(item.getName()).build())
+                .amount(amount)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findByName(item.getName())).thenReturn(Optional.of(item));
+        Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
+        Mockito.when(warehouseDistance.getWarehouseId()).thenReturn(warehouse.getId());
+        Mockito.when(warehouseDistance.getDistanceValue()).thenReturn(12.5);
+        Mockito.when(distanceRepository.findNearestStockedWarehouses(customerId, item.getId(), amount,
+                PageRequest.of(0, 1))).thenReturn(List.of(warehouseDistance));
+        Mockito.when(stockService.decreaseAmount(warehouse.getId(), item.getId(), amount)).thenReturn(true);
+        Mockito.when(warehouseRepository.findWithItemsById(warehouse.getId())).thenReturn(Optional.of(warehouse));
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+        Mockito.when(orderMapper.toDto(order)).thenReturn(createdOrderDto);
+        // then
+        Assertions.assertEquals(createdOrderDto, orderService.create(orderDtoToBeCreated));
+        Mockito.verify(warehouseLocator, Mockito.never()).findNearestWarehouses(customer);
+
+    }
+
+    @Test
+    void OrderToCreate_CreateOrderWithDistanceTableWhenNoWarehouseHasEnoughStock_ThrowUnprocessableEntityException() {
+        // given
+        Long customerId = 1L;
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Customer customer = Customer.builder()
+                .id(customerId)
+                .name("Customer")
+                .build();
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(item.getName()).build())
+                .amount(30.0)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findByName(item.getName())).thenReturn(Optional.of(item));
+        Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
+        Mockito.when(distanceRepository.findNearestStockedWarehouses(customerId, item.getId(), 30.0,
+                PageRequest.of(0, 1))).thenReturn(Collections.emptyList());
+        // then
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> orderService.create(orderDtoToBeCreated));
+
+    }
+
+    @Test
+    void OrderToCreate_CreateOrderWhenTopKWarehousesLackStock_TakeWarehouseFromSpatialSearch()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long customerId = 1L;
+        Double amount = 30.0;
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Customer customer = Customer.builder()
+                .id(customerId)
+                .name("Customer")
+                .build();
+        Warehouse warehouse = Warehouse.builder()
+                .id(3L)
+                .name("Far warehouse")
+                .items(new ArrayList<>())
+                .build();
+        Order order = Order.builder()
+                .item(item)
+                .amount(amount)
+                .customer(customer)
+                .warehouse(warehouse)
+                .distance(850.0)
+                .build();
+        OrderDto createdOrderDto = OrderDto.builder()
+                .amount(amount)
+                .distance(850.0)
+                .build();
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(item.getName()).build())
+                .amount(amount)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findByName(item.getName())).thenReturn(Optional.of(item));
+        Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
+        Mockito.when(warehouseLocator.distanceTableLimit()).thenReturn(OptionalInt.of(2));
+        Mockito.when(distanceRepository.findNearestStockedWarehouses(customerId, item.getId(), amount,
+                PageRequest.of(0, 1))).thenReturn(Collections.emptyList());
+        Mockito.when(stockIndex.findStock(item.getId())).thenReturn(Map.of(warehouse.getId(), 100.0));
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer)).thenReturn(List.<WarehouseDistance>of(
+                new NearestWarehouse(1L, 120.0), new NearestWarehouse(2L, 300.0),
+                new NearestWarehouse(warehouse.getId(), 850.0)).iterator());
+        Mockito.when(stockService.decreaseAmount(warehouse.getId(), item.getId(), amount)).thenReturn(true);
+        Mockito.when(warehouseRepository.findWithItemsById(warehouse.getId())).thenReturn(Optional.of(warehouse));
+        Mockito.when(orderRepository.save(order)).thenReturn(order);
+        Mockito.when(orderMapper.toDto(order)).thenReturn(createdOrderDto);
+        // then
+        Assertions.assertEquals(createdOrderDto, orderService.create(orderDtoToBeCreated));
+
+    }
+
+    @Test
+    void OrdersToCreate_CreateBatchWithItemThatDoesNotExist_ThrowResourceNotFoundException() {
+        // given
+        String itemName = "Chocolate";
+        Long customerId = 1L;
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(itemName).build())
+                .amount(30.0)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findAllByName(Set.of(itemName))).thenReturn(Collections.emptyMap());
+        Mockito.when(customerRepository.findAllById(Set.of(customerId))).thenReturn(Collections.emptyList());
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> orderService.createBatch(List.of(orderDtoToBeCreated)));
+
+    }
+
+    @Test
+    void OrderLargerThanAnyWarehouseStock_CreateSplit_TakePartsFromNearestStockedWarehouses()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long customerId = 1L;
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Customer customer = Customer.builder()
+                .id(customerId)
+                .name("Customer")
+                .build();
+        Warehouse nearest = Warehouse.builder()
+                .id(1L)
+                .name("Nearest warehouse")
+                .items(new ArrayList<>())
+                .build();
+        Warehouse farther = Warehouse.builder()
+                .id(2L)
+                .name("Farther warehouse")
+                .items(new ArrayList<>())
+                .build();
+        Order nearestLine = new Order(null, 10.0, 5.0, item, customer, nearest);
+        Order fartherLine = new Order(null, 20.0, 9.0, item, customer, farther);
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(item.getName()).build())
+                .amount(30.0)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findByName(item.getName())).thenReturn(Optional.of(item));
+        Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        Mockito.when(stockIndex.findStock(item.getId())).thenReturn(Map.of(nearest.getId(), 10.0,
+                farther.getId(), 50.0));
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer)).thenReturn(List.<WarehouseDistance>of(
+                new NearestWarehouse(nearest.getId(), 5.0), new NearestWarehouse(3L, 7.0),
+                new NearestWarehouse(farther.getId(), 9.0), new NearestWarehouse(4L, 12.0)).iterator());
+        Mockito.when(stockService.decreaseAmounts(item.getId(), Map.of(nearest.getId(), 10.0, farther.getId(), 20.0)))
+                .thenReturn(true);
+        Mockito.when(warehouseRepository.findWithItemsByIdIn(Set.of(nearest.getId(), farther.getId())))
+                .thenReturn(List.of(nearest, farther));
+        Mockito.when(orderRepository.saveAll(List.of(nearestLine, fartherLine)))
+                .thenReturn(List.of(nearestLine, fartherLine));
+        Mockito.when(orderMapper.toDto(Mockito.any(Order.class)))
+                .thenAnswer(invocation -> OrderDto.builder()
+                        .amount(invocation.<Order>getArgument(0).getAmount())
+                        .build());
+        List<OrderDto> lines = orderService.createSplit(orderDtoToBeCreated);
+        // then
+        Assertions.assertEquals(List.of(10.0, 20.0), List.of(lines.get(0).getAmount(), lines.get(1).getAmount()));
+
+    }
+
+    @Test
+    void OrderLargerThanTotalStock_CreateSplit_ThrowUnprocessableEntityExceptionWithoutTakingStock() {
+        // given
+        Long customerId = 1L;
+        Item item = Item.builder()
+                .id(1L)
+                .name("Chocolate")
+                .build();
+        Customer customer = Customer.builder()
+                .id(customerId)
+                .name("Customer")
+                .build();
+        CreateOrderDto orderDtoToBeCreated = CreateOrderDto.builder()
+                .item(ItemDto.builder().name(item.getName()).build())
+                .amount(30.0)
+                .customerId(customerId)
+                .build();
+        // when
+        Mockito.when(itemNameCache.findByName(item.getName())).thenReturn(Optional.of(item));
+        Mockito.when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
+        Mockito.when(stockIndex.findStock(item.getId())).thenReturn(Map.of(1L, 10.0, 2L, 15.0));
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer)).thenReturn(List.<WarehouseDistance>of(
+                new NearestWarehouse(1L, 5.0), new NearestWarehouse(2L, 9.0)).iterator());
+        // then
+        Assertions.assertThrows(UnprocessableEntityException.class,
+                () -> orderService.createSplit(orderDtoToBeCreated));
+        Mockito.verifyNoInteractions(stockService);
+
+    }
+
+    @Test
+    void OrderIdThatDoesNotExist_Cancel_ThrowResourceNotFoundExceptionWithoutDeleting() {
+        // given
+        Long orderId = 12503L;
+        // when
+        Mockito.when(orderRepository.findStockByIdIn(Set.of(orderId))).thenReturn(Collections.emptyList());
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> orderService.cancel(orderId));
+        Mockito.verify(orderRepository, Mockito.never()).deleteByIdIn(Mockito.any());
+        Mockito.verifyNoInteractions(stockService);
+
+    }
 }
@@ -0,0 +1,205 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateReservationDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.ReservationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.entity.ReservationStatus;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private StockIndex stockIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long customerId;
+    private Long warehouseId;
+
+    @BeforeAll
+    void createWarehouseAndCustomer() {
+        warehouseId = warehouseService.create(WarehouseDto.builder()
+                .name("Reserving warehouse")
+                .location(new LocationDto(-35.0, 150.0))
+                .items(List.of(new WarehouseItemDto(null, 100.0, ItemDto.builder().name("Confirmed item").build()),
+                        new WarehouseItemDto(null, 100.0, ItemDto.builder().name("Released item").build()),
+                        new WarehouseItemDto(null, 20.0, ItemDto.builder().name("Expired item").build()),
+                        new WarehouseItemDto(null, 20.0,
+                                ItemDto.builder().name("Concurrently released item").build()),
+                        new WarehouseItemDto(null, 10.0,
+                                ItemDto.builder().name("Item of deleted customer").build())))
+                .build()).getId();
+        customerId = customerService.create(CustomerDto.builder()
+                .name("Reserving customer")
+                .location(new LocationDto(-35.1, 150.1))
+                .build()).getId();
+    }
+
+    @Test
+    void ActiveReservation_Confirm_CreateOrderFromHeldStock()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        ReservationDto reservation = reservationService.reserve(reservation("Confirmed item", 30.0, null));
+        // when
+        OrderDto order = reservationService.confirm(reservation.getId());
+        // then
+        Assertions.assertEquals(warehouseId, order.getWarehouse().getId());
+        Assertions.assertEquals(30.0, order.getAmount());
+        Assertions.assertEquals(70.0, stock("Confirmed item"));
+        ReservationDto confirmed = reservationService.readById(reservation.getId());
+        Assertions.assertEquals(ReservationStatus.CONFIRMED, confirmed.getStatus());
+        Assertions.assertEquals(order.getId(), confirmed.getOrderId());
+
+    }
+
+    @Test
+    void ActiveReservation_Release_PutStockBackOnce() throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        ReservationDto reservation = reservationService.reserve(reservation("Released item", 40.0, 60L));
+        Assertions.assertEquals(60.0, stock("Released item"));
+        // when
+        ReservationDto released = reservationService.release(reservation.getId());
+        // then
+        Assertions.assertEquals(ReservationStatus.RELEASED, released.getStatus());
+        Assertions.assertEquals(100.0, stock("Released item"));
+        Assertions.assertThrows(UnprocessableEntityException.class,
+                () -> reservationService.release(reservation.getId()));
+
+    }
+
+    @Test
+    void DueReservationsHoldingWholeStock_ExpireDueReservations_RecreateStock()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        ReservationDto first = reservationService.reserve(reservation("Expired item", 15.0, null));
+        ReservationDto second = reservationService.reserve(reservation("Expired item", 5.0, null));
+        Assertions.assertNull(stock("Expired item"));
+        jdbcTemplate.update("update reservation set expires_at = ? where id in (?, ?)",
+                Timestamp.valueOf("2020-01-01 00:00:00"), first.getId(), second.getId());
+        // when
+        Assertions.assertTrue(reservationService.expireDueReservations() >= 2);
+        // then
+        Assertions.assertEquals(20.0, stock("Expired item"));
+        Assertions.assertEquals(ReservationStatus.EXPIRED, reservationService.readById(first.getId()).getStatus());
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> reservationService.confirm(second.getId()));
+
+    }
+
+    @Test
+    void ReservationsHoldingWholeStock_ReleaseConcurrently_RecreateStockOnce() throws Exception {
+        // given
+        List<ReservationDto> reservations = List.of(
+                reservationService.reserve(reservation("Concurrently released item", 12.0, null)),
+                reservationService.reserve(reservation("Concurrently released item", 8.0, null)));
+        Assertions.assertNull(stock("Concurrently released item"));
+        ExecutorService executor = Executors.newFixedThreadPool(reservations.size());
+        CyclicBarrier barrier = new CyclicBarrier(reservations.size());
+        // when
+        List<Future<ReservationDto>> released = executor.invokeAll(reservations.stream()
+                .map(reservation -> (Callable<ReservationDto>) () -> {
+                    barrier.await();
+                    return reservationService.release(reservation.getId());
+                })
+                .collect(Collectors.toList()));
+        executor.shutdown();
+        // then
+        for (Future<ReservationDto> reservation : released) {
+            Assertions.assertEquals(ReservationStatus.RELEASED, reservation.get().getStatus());
+        }
+        Assertions.assertEquals(20.0, stock("Concurrently released item"));
+
+    }
+
+    @Test
+    void CustomerWithActiveReservation_DeleteCustomer_PutStockBackAndDeleteReservation()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long deletedCustomerId = customerService.create(CustomerDto.builder()
+                .name("Deleted reserving customer")
+                .location(new LocationDto(-35.2, 150.2))
+                .build()).getId();
+        ReservationDto reservation = reservationService.reserve(new CreateReservationDto(10.0,
+                ItemDto.builder().name("Item of deleted customer").build(), deletedCustomerId, null));
+        Assertions.assertNull(stock("Item of deleted customer"));
+        // when
+        customerService.deleteById(deletedCustomerId);
+        // then
+        Assertions.assertEquals(10.0, stock("Item of deleted customer"));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> customerService.readById(deletedCustomerId));
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> reservationService.readById(reservation.getId()));
+
+    }
+
+    @Test
+    void WarehouseWithActiveReservation_DeleteWarehouse_DeleteReservation()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long deletedWarehouseId = warehouseService.create(WarehouseDto.builder()
+                .name("Deleted reserving warehouse")
+                .location(new LocationDto(35.0, -150.0))
+                .items(List.of(new WarehouseItemDto(null, 10.0,
+                        ItemDto.builder().name("Item of deleted warehouse").build())))
+                .build()).getId();
+        ReservationDto reservation = reservationService.reserve(new CreateReservationDto(4.0,
+                ItemDto.builder().name("Item of deleted warehouse").build(), customerId, null));
+        Assertions.assertEquals(deletedWarehouseId, reservation.getWarehouseId());
+        // when
+        warehouseService.deleteById(deletedWarehouseId);
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> warehouseService.readById(deletedWarehouseId));
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> reservationService.readById(reservation.getId()));
+
+    }
+
+    @Test
+    void ReservationThatDoesNotExist_Confirm_ThrowResourceNotFoundException() {
+        // given
+        Long reservationId = 125035L;
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> reservationService.confirm(reservationId));
+
+    }
+
+    private CreateReservationDto reservation(final String itemName, final Double amount, final Long ttlSeconds) {
+        return new CreateReservationDto(amount, ItemDto.builder().name(itemName).build(), customerId, ttlSeconds);
+    }
+
+    private Double stock(final String itemName) {
+        return WarehouseStock.amount(jdbcTemplate, stockIndex, itemName, warehouseId);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Items, customers and locations are served from the second-level cache once read, and changes made
+ * through the services are visible right away.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void getStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void ItemName_ReadByNameTwice_ServeSecondReadFromQueryCache() {
+        // given
+        String itemName = itemService.create(ItemDto.builder().name("Cached item").build()).getName();
+        // when
+        itemRepository.readByName(itemName);
+        statistics.clear();
+        itemRepository.readByName(itemName);
+        // then
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+        Assertions.assertTrue(meterRegistry.get("hibernate.query.cache.hit.ratio").gauge().value() > 0);
+
+    }
+
+    @Test
+    void CachedItem_UpdateName_FindItemOnlyByNewName() throws ResourceNotFoundException {
+        // given
+        Long itemId = itemService.create(ItemDto.builder().name("Renamed cached item").build()).getId();
+        itemService.readById(itemId);
+        itemRepository.readByName("Renamed cached item");
+        // when
+        itemService.updateName(itemId, "New name of cached item");
+        // then
+        Assertions.assertTrue(itemRepository.readByName("Renamed cached item").isEmpty());
+        Assertions.assertEquals(itemId, itemRepository.readByName("New name of cached item").orElseThrow().getId());
+        Assertions.assertEquals("New name of cached item", itemService.readById(itemId).getName());
+
+    }
+
+    @Test
+    void CachedItem_DeleteById_ItemIsNotFound() throws ResourceNotFoundException {
+        // given
+        Long itemId = itemService.create(ItemDto.builder().name("Deleted cached item").build()).getId();
+        itemService.readById(itemId);
+        itemRepository.readByName("Deleted cached item");
+        // when
+        itemService.deleteById(itemId);
+        // then
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> itemService.readById(itemId));
+        Assertions.assertTrue(itemRepository.readByName("Deleted cached item").isEmpty());
+
+    }
+
+    @Test
+    void CachedCustomer_ReadByIdAfterUpdateName_ServeUpdatedCustomerWithLocationFromCache()
+            throws ResourceNotFoundException {
+        // given
+        Long customerId = customerService.create(CustomerDto.builder()
+                .name("Cached customer")
+                .location(new LocationDto(53.9, 27.56))
+                .build()).getId();
+        customerService.readById(customerId);
+        // when
+        customerService.updateName(customerId, "Renamed cached customer");
+        statistics.clear();
+        CustomerDto customer = customerService.readById(customerId);
+        // then
+        Assertions.assertEquals("Renamed cached customer", customer.getName());
+        Assertions.assertEquals(53.9, customer.getLocation().getLatitude());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertTrue(meterRegistry.get("hibernate.second.level.cache.hit.ratio")
+                .tag("region", "customer").gauge().value() > 0);
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.OrderDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SplitFulfillmentTest {
+
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private StockIndex stockIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void OrderLargerThanAnyWarehouseStock_CreateSplit_EmptyNearestWarehouseAndTakeRestFromNext()
+            throws UnprocessableEntityException, ResourceNotFoundException {
+        // given
+        Long nearest = createWarehouse("Split nearest", 70.1, 40.0);
+        Long next = createWarehouse("Split next", 70.2, 100.0);
+        Long farthest = createWarehouse("Split farthest", 70.3, 100.0);
+        Long customerId = customerService.create(CustomerDto.builder()
+                .name("Split customer")
+                .location(new LocationDto(-70.0, 70.0))
+                .build()).getId();
+        // when
+        List<OrderDto> lines = orderService.createSplit(new CreateOrderDto(90.0,
+                ItemDto.builder().name("Split item").build(), customerId));
+        // then
+        Assertions.assertEquals(List.of(nearest, next), lines.stream()
+                .map(line -> line.getWarehouse().getId())
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(40.0, 50.0), lines.stream()
+                .map(OrderDto::getAmount)
+                .collect(Collectors.toList()));
+        Long itemId = jdbcTemplate.queryForObject("select id from item where name = 'Split item'", Long.class);
+        Assertions.assertEquals(List.of(50.0, 100.0), jdbcTemplate.queryForList("select amount from warehouse_item"
+                + " where item_id = ? order by warehouse_id", Double.class, itemId));
+        Assertions.assertEquals(0.0, stockIndex.getAmount(itemId, nearest));
+        Assertions.assertEquals(50.0, stockIndex.getAmount(itemId, next));
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> orderService.createSplit(
+                new CreateOrderDto(151.0, ItemDto.builder().name("Split item").build(), customerId)));
+        Assertions.assertEquals(100.0, stockIndex.getAmount(itemId, farthest));
+
+    }
+
+    private Long createWarehouse(final String name, final double longitude, final double amount) {
+        return warehouseService.create(WarehouseDto.builder()
+                .name(name)
+                .location(new LocationDto(-70.0, longitude))
+                .items(List.of(new WarehouseItemDto(null, amount, ItemDto.builder().name("Split item").build())))
+                .build()).getId();
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentStatus;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read and allocation paths must run a fixed number of SQL statements, however many warehouses, items
+ * and orders a page holds.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementCountTest {
+
+    private static final int WAREHOUSES = 20;
+    private static final int ITEMS_PER_WAREHOUSE = 5;
+
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private StockAdjustmentService stockAdjustmentService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long warehouseId;
+    private final List<Long> warehouseIds = new ArrayList<>();
+    private Long customerId;
+
+    @BeforeAll
+    void createWarehousesAndOrders() throws ResourceNotFoundException {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < WAREHOUSES; i++) {
+            List<WarehouseItemDto> items = new ArrayList<>();
+            for (int j = 0; j < ITEMS_PER_WAREHOUSE; j++) {
+                items.add(new WarehouseItemDto(null, 1000.0, ItemDto.builder().name("Budget item " + j).build()));
+            }
+            warehouseId = warehouseService.create(WarehouseDto.builder()
+                    .name("Budget warehouse " + i)
+                    .location(new LocationDto(i * 4.0, i * 8.0))
+                    .items(items)
+                    .build()).getId();
+            warehouseIds.add(warehouseId);
+        }
+        customerId = customerService.create(CustomerDto.builder()
+                .name("Budget customer")
+                .location(new LocationDto(10.0, 10.0))
+                .build()).getId();
+        for (int i = 0; i < WAREHOUSES; i++) {
+            orderService.create(orderToCreate(i % ITEMS_PER_WAREHOUSE));
+        }
+    }
+
+    @Test
+    void Warehouses_ReadPage_RunPageCountAndItemsStatements() {
+        // when
+        statistics.clear();
+        warehouseService.readPage(PageRequest.of(0, WAREHOUSES, Sort.by(Sort.Direction.DESC, "id")));
+        // then
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void Warehouses_ReadCursorPage_RunPageAndItemsStatements() {
+        // when
+        statistics.clear();
+        warehouseService.readCursorPage(null, WAREHOUSES);
+        // then
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void WarehouseId_ReadById_RunOneStatement() throws Exception {
+        // when
+        statistics.clear();
+        warehouseService.readById(warehouseId);
+        // then
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void Orders_ReadPage_RunPageCountAndWarehouseItemsStatements() {
+        // when
+        statistics.clear();
+        orderService.readPage(PageRequest.of(0, WAREHOUSES, Sort.by(Sort.Direction.DESC, "id")));
+        // then
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void Orders_ReadCursorPage_RunPageAndWarehouseItemsStatements() {
+        // when
+        statistics.clear();
+        orderService.readCursorPage(null, WAREHOUSES);
+        // then
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void OrderToCreate_CreateOrder_RunBoundedNumberOfStatements() throws Exception {
+        // when
+        statistics.clear();
+        orderService.create(orderToCreate(0));
+        // then
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 7,
+                "Statements run: " + statistics.getPrepareStatementCount());
+
+    }
+
+    @Test
+    void StockChanges_AdjustStockOfAllWarehouses_RunBoundedNumberOfStatements() {
+        // given
+        List<WarehouseItemChangeAmountDto> lines = new ArrayList<>();
+        for (Long id : warehouseIds) {
+            for (int j = 0; j < ITEMS_PER_WAREHOUSE; j++) {
+                lines.add(new WarehouseItemChangeAmountDto(id, 2.0,
+                        ItemDto.builder().name("Budget item " + j).build(), Operation.PUT));
+                lines.add(new WarehouseItemChangeAmountDto(id, 1.0,
+                        ItemDto.builder().name("Budget item " + j).build(), Operation.REMOVE));
+            }
+        }
+        // when
+        statistics.clear();
+        boolean allApplied = stockAdjustmentService.adjust(lines).stream()
+                .allMatch(result -> result.getStatus() == StockAdjustmentStatus.APPLIED);
+        // then
+        Assertions.assertTrue(allApplied);
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Statements run: " + statistics.getPrepareStatementCount());
+
+    }
+
+    private CreateOrderDto orderToCreate(final int itemIndex) {
+        return new CreateOrderDto(1.0, ItemDto.builder().name("Budget item " + itemIndex).build(), customerId);
+    }
+
+}
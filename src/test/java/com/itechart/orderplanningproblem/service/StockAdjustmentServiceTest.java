@@ -0,0 +1,121 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.Operation;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentResultDto;
+import com.itechart.orderplanningproblem.dto.StockAdjustmentStatus;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.entity.WarehouseItem;
+import com.itechart.orderplanningproblem.mapper.ItemMapper;
+import com.itechart.orderplanningproblem.repository.ItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private WarehouseItemRepository warehouseItemRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemNameCache itemNameCache;
+    @Mock
+    private ItemMapper itemMapper;
+    @Mock
+    private StockIndex stockIndex;
+    @InjectMocks
+    private StockAdjustmentService stockAdjustmentService;
+
+    private final Item chocolate = Item.builder()
+            .id(1L)
+            .name("Chocolate")
+            .build();
+    private final Warehouse warehouse = Warehouse.builder()
+            .id(1L)
+            .name("Warehouse")
+            .build();
+
+    @Test
+    void LinesWithTooLargeRemove_Adjust_SkipConflictingLineAndApplyOthers() {
+        // given
+        WarehouseItem stock = new WarehouseItem(10L, 20.0, chocolate, warehouse);
+        List<WarehouseItemChangeAmountDto> lines = List.of(
+                line(1L, "Chocolate", 30.0, Operation.REMOVE),
+                line(1L, "Chocolate", 5.0, Operation.REMOVE));
+        // when
+        mockStock(stock);
+        List<StockAdjustmentResultDto> results = stockAdjustmentService.adjust(lines);
+        // then
+        Assertions.assertEquals(StockAdjustmentStatus.CONFLICT, results.get(0).getStatus());
+        Assertions.assertEquals(StockAdjustmentStatus.APPLIED, results.get(1).getStatus());
+        Assertions.assertEquals(15.0, results.get(1).getAmount());
+        Assertions.assertEquals(15.0, stock.getAmount());
+        Mockito.verify(stockIndex).addAmount(1L, 1L, -5.0);
+
+    }
+
+    @Test
+    void PutThenRemoveOfSameItem_Adjust_ApplyLinesInOrder() {
+        // given
+        WarehouseItem stock = new WarehouseItem(10L, 5.0, chocolate, warehouse);
+        List<WarehouseItemChangeAmountDto> lines = List.of(
+                line(1L, "Chocolate", 10.0, Operation.PUT),
+                line(1L, "Chocolate", 15.0, Operation.REMOVE));
+        // when
+        mockStock(stock);
+        List<StockAdjustmentResultDto> results = stockAdjustmentService.adjust(lines);
+        // then
+        Assertions.assertEquals(15.0, results.get(0).getAmount());
+        Assertions.assertEquals(StockAdjustmentStatus.APPLIED, results.get(1).getStatus());
+        Assertions.assertEquals(0.0, results.get(1).getAmount());
+        Mockito.verify(warehouseItemRepository).deleteAll(List.of(stock));
+        Mockito.verify(stockIndex).addAmount(1L, 1L, -5.0);
+
+    }
+
+    @Test
+    void LineForWarehouseThatDoesNotExist_Adjust_ReportNotFoundWithoutLockingStock() {
+        // given
+        List<WarehouseItemChangeAmountDto> lines = List.of(line(2L, "Chocolate", 10.0, Operation.PUT));
+        // when
+        Mockito.when(warehouseRepository.findIdsByIdIn(Set.of(2L))).thenReturn(Set.of());
+        Mockito.when(itemNameCache.findAllByName(Set.of("Chocolate"))).thenReturn(Map.of("Chocolate", chocolate));
+        List<StockAdjustmentResultDto> results = stockAdjustmentService.adjust(lines);
+        // then
+        Assertions.assertEquals(StockAdjustmentStatus.NOT_FOUND, results.get(0).getStatus());
+        Mockito.verify(warehouseItemRepository, Mockito.never())
+                .findForUpdate(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyCollection());
+        Mockito.verifyNoInteractions(stockIndex);
+
+    }
+
+    private void mockStock(final WarehouseItem stock) {
+        Mockito.when(warehouseRepository.findIdsByIdIn(Set.of(1L))).thenReturn(Set.of(1L));
+        Mockito.when(itemNameCache.findAllByName(Set.of("Chocolate"))).thenReturn(Map.of("Chocolate", chocolate));
+        Mockito.when(warehouseItemRepository.findForUpdate(Set.of(1L), Set.of(1L))).thenReturn(List.of(stock));
+    }
+
+    private WarehouseItemChangeAmountDto line(final Long warehouseId, final String itemName, final Double amount,
+                                              final Operation operation) {
+        return new WarehouseItemChangeAmountDto(warehouseId, amount, ItemDto.builder().name(itemName).build(),
+                operation);
+    }
+
+}
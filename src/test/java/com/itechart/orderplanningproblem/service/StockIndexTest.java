@@ -0,0 +1,63 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseItemStock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class StockIndexTest {
+
+    @Mock
+    private WarehouseItemRepository warehouseItemRepository;
+    @InjectMocks
+    private StockIndex stockIndex;
+
+    @Test
+    void StockInDb_RebuildIndex_ReturnWarehousesThatStockItem() {
+        // given
+        WarehouseItemStock firstStock = Mockito.mock(WarehouseItemStock.class);
+        WarehouseItemStock secondStock = Mockito.mock(WarehouseItemStock.class);
+        // when
+        Mockito.when(firstStock.getItemId()).thenReturn(1L);
+        Mockito.when(firstStock.getWarehouseId()).thenReturn(1L);
+        Mockito.when(firstStock.getAmount()).thenReturn(30.0);
+        Mockito.when(secondStock.getItemId()).thenReturn(1L);
+        Mockito.when(secondStock.getWarehouseId()).thenReturn(2L);
+        Mockito.when(secondStock.getAmount()).thenReturn(5.0);
+        Mockito.when(warehouseItemRepository.findAllStock()).thenReturn(List.of(firstStock, secondStock));
+        stockIndex.rebuild();
+        // then
+        Assertions.assertEquals(Map.of(1L, 30.0, 2L, 5.0), stockIndex.findStock(1L));
+        Assertions.assertTrue(stockIndex.findStock(2L).isEmpty());
+
+    }
+
+    @Test
+    void StockChanges_AddAmountAndRemoveWarehouse_KeepIndexConsistent() {
+        // when
+        stockIndex.addAmount(1L, 1L, 30.0);
+        stockIndex.addAmount(1L, 2L, 5.0);
+        stockIndex.addAmount(2L, 1L, 10.0);
+        stockIndex.addAmount(1L, 2L, -5.0);
+        // then
+        Assertions.assertEquals(Map.of(1L, 30.0), stockIndex.findStock(1L));
+        Assertions.assertEquals(10.0, stockIndex.getAmount(2L, 1L));
+
+        // when
+        stockIndex.removeWarehouse(1L);
+        // then
+        Assertions.assertTrue(stockIndex.findStock(1L).isEmpty());
+        Assertions.assertEquals(0.0, stockIndex.getAmount(2L, 1L));
+
+    }
+
+}
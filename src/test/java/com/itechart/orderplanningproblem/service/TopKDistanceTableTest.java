@@ -0,0 +1,108 @@
+package com.itechart.orderplanningproblem.service;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = {"distance.mode=top-k", "distance.top-k.size=2"})
+@ActiveProfiles("test")
+class TopKDistanceTableTest {
+
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void WarehousesAddedAndDeleted_MaintainDistanceTable_KeepNearestWarehousesOfCustomer()
+            throws ResourceNotFoundException {
+        // given
+        Long first = createWarehouse("Top k first", -150.1, List.of());
+        Long second = createWarehouse("Top k second", -150.2, List.of());
+        Long stocked = createWarehouse("Top k stocked", -150.3,
+                List.of(new WarehouseItemDto(null, 10.0, ItemDto.builder().name("Top k item").build())));
+        Long customerId = customerService.create(CustomerDto.builder()
+                .name("Top k customer")
+                .location(new LocationDto(-60.0, -150.0))
+                .build()).getId();
+        Assertions.assertEquals(Set.of(first, second), keptWarehouseIds(customerId));
+        // when
+        Long nearest = createWarehouse("Top k nearest", -150.05, List.of());
+        // then
+        Assertions.assertEquals(Set.of(first, nearest), keptWarehouseIds(customerId));
+        // when
+        warehouseService.deleteById(first);
+        // then
+        Assertions.assertEquals(Set.of(nearest, second), keptWarehouseIds(customerId));
+        Assertions.assertEquals(stocked, orderService.create(new CreateOrderDto(5.0,
+                ItemDto.builder().name("Top k item").build(), customerId)).getWarehouse().getId());
+
+    }
+
+    @Test
+    void WarehousesAddedConcurrently_MaintainDistanceTable_KeepNoMoreThanLimit() throws Exception {
+        // given
+        Long customerId = customerService.create(CustomerDto.builder()
+                .name("Top k concurrent customer")
+                .location(new LocationDto(-70.0, -150.0))
+                .build()).getId();
+        createWarehouse("Top k concurrent far", -70.0, -150.4, List.of());
+        createWarehouse("Top k concurrent farthest", -70.0, -150.5, List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        // when
+        List<Future<Long>> nearest = executor.invokeAll(List.of(-150.1, -150.2).stream()
+                .map(longitude -> (Callable<Long>) () -> {
+                    barrier.await();
+                    return createWarehouse("Top k concurrent " + longitude, -70.0, longitude, List.of());
+                })
+                .collect(Collectors.toList()));
+        executor.shutdown();
+        // then
+        Assertions.assertEquals(Set.of(nearest.get(0).get(), nearest.get(1).get()), keptWarehouseIds(customerId));
+
+    }
+
+    private Long createWarehouse(final String name, final double longitude, final List<WarehouseItemDto> items) {
+        return createWarehouse(name, -60.0, longitude, items);
+    }
+
+    private Long createWarehouse(final String name, final double latitude, final double longitude,
+                                 final List<WarehouseItemDto> items) {
+        return warehouseService.create(WarehouseDto.builder()
+                .name(name)
+                .location(new LocationDto(latitude, longitude))
+                .items(items)
+                .build()).getId();
+    }
+
+    private Set<Long> keptWarehouseIds(final Long customerId) {
+        return new HashSet<>(jdbcTemplate.queryForList("select warehouse_id from distance where customer_id = ?",
+                Long.class, customerId));
+    }
+
+}
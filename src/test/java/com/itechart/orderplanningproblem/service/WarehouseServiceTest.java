@@ -1,18 +1,24 @@
 package com.itechart.orderplanningproblem.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itechart.orderplanningproblem.dto.ItemDto;
 import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.Operation;
 import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemChangeAmountDto;
+import com.itechart.orderplanningproblem.entity.Item;
 import com.itechart.orderplanningproblem.entity.Location;
 import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.error.exception.ConflictWithCurrentWarehouseStateException;
 import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
 import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
-import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.mapper.WarehouseMapper;
 import com.itechart.orderplanningproblem.repository.DistanceRepository;
 import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -31,11 +37,19 @@ class WarehouseServiceTest {
     @Mock
     private WarehouseRepository warehouseRepository;
     @Mock
-    private CustomerRepository customerRepository;
-    @Mock
     private DistanceRepository distanceRepository;
     @Mock
-    private ObjectMapper objectMapper;
+    private WarehouseMapper warehouseMapper;
+    @Mock
+    private WarehouseLocator warehouseLocator;
+    @Mock
+    private DistanceFanOutService distanceFanOutService;
+    @Mock
+    private StockIndex stockIndex;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private ItemNameCache itemNameCache;
     @InjectMocks
     private WarehouseService warehouseService;
 
@@ -45,7 +59,7 @@ class WarehouseServiceTest {
         Long warehouseId = 12503L;
         String warehouseNewName = "New name";
         // when
-        Mockito.when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.empty());
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.empty());
         // then
         Assertions.assertThrows(ResourceNotFoundException.class, () -> warehouseService
                 .updateName(warehouseId, warehouseNewName));
@@ -76,7 +90,7 @@ class WarehouseServiceTest {
                 .items(new ArrayList<>())
                 .build();
         // when
-        Mockito.when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouseInDbById));
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.of(warehouseInDbById));
         Mockito.when(warehouseRepository.readByName(warehouseNewName))
                 .thenReturn(Optional.of(warehouseInDbByIdentifier));
         // then
@@ -120,10 +134,10 @@ class WarehouseServiceTest {
                 .items(new ArrayList<>())
                 .build();
         // when
-        Mockito.when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouseInDbById));
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.of(warehouseInDbById));
         Mockito.when(warehouseRepository.readByName(warehouseNewName)).thenReturn(Optional.empty());
         Mockito.when(warehouseRepository.save(warehouseInDbById)).thenReturn(warehouseInDbAfterIdentifierWasChanged);
-        Mockito.when(objectMapper.convertValue(warehouseInDbAfterIdentifierWasChanged, WarehouseDto.class))
+        Mockito.when(warehouseMapper.toDto(warehouseInDbAfterIdentifierWasChanged))
                 .thenReturn(warehouseDto);
         // then
         Assertions.assertEquals(warehouseDto, warehouseService
@@ -136,7 +150,7 @@ class WarehouseServiceTest {
         // given
         Long warehouseId = 12503L;
         // when
-        Mockito.when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.empty());
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.empty());
         // then
         Assertions.assertThrows(ResourceNotFoundException.class, () -> warehouseService.readById(warehouseId));
 
@@ -170,8 +184,8 @@ class WarehouseServiceTest {
                 .items(new ArrayList<>())
                 .build();
         // when
-        Mockito.when(warehouseRepository.findById(warehouseId)).thenReturn(Optional.of(warehouse));
-        Mockito.when(objectMapper.convertValue(warehouse, WarehouseDto.class))
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.of(warehouse));
+        Mockito.when(warehouseMapper.toDto(warehouse))
                 .thenReturn(warehouseDto);
 
         // then
@@ -179,6 +193,39 @@ class WarehouseServiceTest {
 
     }
 
+    @Test
+    void ItemAmountToPut_ChangeAmountOfWarehouseItem_IncreaseStockAtomicallyAndReturnFreshWarehouse()
+            throws ResourceNotFoundException, UnprocessableEntityException, ConflictWithCurrentWarehouseStateException {
+        // given
+        Long warehouseId = 1L;
+        Item item = Item.builder()
+                .id(2L)
+                .name("Chocolate")
+                .build();
+        WarehouseItemChangeAmountDto change = new WarehouseItemChangeAmountDto(warehouseId, 10.0,
+                ItemDto.builder().name("Chocolate").build(), Operation.PUT);
+        Warehouse warehouse = Warehouse.builder()
+                .id(warehouseId)
+                .items(new ArrayList<>())
+                .build();
+        WarehouseDto warehouseDto = WarehouseDto.builder()
+                .id(warehouseId)
+                .items(new ArrayList<>())
+                .build();
+        // when
+        Mockito.when(warehouseRepository.existsById(warehouseId)).thenReturn(true);
+        Mockito.when(itemNameCache.findByName("Chocolate")).thenReturn(Optional.of(item));
+        Mockito.when(warehouseRepository.findWithItemsById(warehouseId)).thenReturn(Optional.of(warehouse));
+        Mockito.when(warehouseMapper.toDto(warehouse)).thenReturn(warehouseDto);
+        // then
+        Assertions.assertEquals(warehouseDto, warehouseService.changeAmountOfWarehouseItem(change));
+        InOrder inOrder = Mockito.inOrder(stockService, warehouseRepository);
+        inOrder.verify(stockService).increaseAmount(warehouseId, 2L, 10.0);
+        inOrder.verify(warehouseRepository).findWithItemsById(warehouseId);
+        Mockito.verify(warehouseRepository, Mockito.never()).save(Mockito.any());
+
+    }
+
     @Test
     void ReadPageOfWarehouses_ReturnPageOfWarehouses() {
         // given
@@ -213,7 +260,7 @@ class WarehouseServiceTest {
         Page<WarehouseDto> warehouseDtoWithIdPage = new PageImpl<>(warehouseDtoList);
         // when
         Mockito.when(warehouseRepository.findAll(pageRequest)).thenReturn(warehousePage);
-        Mockito.when(objectMapper.convertValue(warehouse, WarehouseDto.class))
+        Mockito.when(warehouseMapper.toDto(warehouse))
                 .thenReturn(warehouseDto);
         // then
         Assertions.assertEquals(warehouseDtoWithIdPage, warehouseService.readPage(pageRequest));
@@ -259,16 +306,17 @@ class WarehouseServiceTest {
                 .build();
         // when
         Mockito.when(warehouseRepository.readByName(warehouseIdentifier)).thenReturn(Optional.empty());
-        Mockito.when(objectMapper.convertValue(warehouseDtoToBeCreated, Warehouse.class))
+        Mockito.when(warehouseMapper.toEntity(warehouseDtoToBeCreated))
                 .thenReturn(warehouse);
-        Mockito.when(customerRepository.findAll()).thenReturn(Collections.emptyList());
-        Mockito.when(distanceRepository.saveAll(new ArrayList<>())).thenReturn(Collections.emptyList());
+        Mockito.when(warehouseLocator.usesDistanceTable()).thenReturn(true);
         Mockito.when(warehouseRepository.save(warehouse)).thenReturn(createdWarehouse);
-        Mockito.when(objectMapper.convertValue(createdWarehouse, WarehouseDto.class))
+        Mockito.when(warehouseMapper.toDto(createdWarehouse))
                 .thenReturn(createdWarehouseDto);
 
         // then
         Assertions.assertEquals(createdWarehouseDto, warehouseService.create(warehouseDtoToBeCreated));
+        Assertions.assertFalse(warehouse.isDistancesReady());
+        Mockito.verify(distanceFanOutService).schedule(createdWarehouse);
 
     }
 }
@@ -0,0 +1,32 @@
+package com.itechart.orderplanningproblem.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Reads stock straight from the warehouse_item table for tests that change it, checking that the stock index
+ * agrees with the table.
+ */
+final class WarehouseStock {
+
+    private WarehouseStock() {
+    }
+
+    /**
+     * @return the amount of the item in the warehouse, or null if the warehouse has no row for it
+     */
+    static Double amount(final JdbcTemplate jdbcTemplate, final StockIndex stockIndex, final String itemName,
+                         final Long warehouseId) {
+        List<Double> amounts = jdbcTemplate.queryForList("select wi.amount from warehouse_item wi"
+                + " join item i on i.id = wi.item_id where i.name = ? and wi.warehouse_id = ?", Double.class,
+                itemName, warehouseId);
+        Assertions.assertTrue(amounts.size() <= 1, "More than one stock row of " + itemName);
+        Long itemId = jdbcTemplate.queryForObject("select id from item where name = ?", Long.class, itemName);
+        Double amount = amounts.isEmpty() ? null : amounts.get(0);
+        Assertions.assertEquals(amount == null ? 0.0 : amount, stockIndex.getAmount(itemId, warehouseId));
+        return amount;
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.dto.CreateOrderDto;
+import com.itechart.orderplanningproblem.dto.CustomerDto;
+import com.itechart.orderplanningproblem.dto.ItemDto;
+import com.itechart.orderplanningproblem.dto.LocationDto;
+import com.itechart.orderplanningproblem.dto.WarehouseDto;
+import com.itechart.orderplanningproblem.dto.WarehouseItemDto;
+import com.itechart.orderplanningproblem.error.exception.ResourceNotFoundException;
+import com.itechart.orderplanningproblem.error.exception.UnprocessableEntityException;
+import com.itechart.orderplanningproblem.service.CustomerService;
+import com.itechart.orderplanningproblem.service.DistanceService;
+import com.itechart.orderplanningproblem.service.OrderService;
+import com.itechart.orderplanningproblem.service.WarehouseService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Places random orders on a synthetic cluster of warehouses with random stock and checks every allocation
+ * against a brute-force replay of the strategy.
+ */
+@SpringBootTest(properties = {"allocation.radius.km=" + AllocationStrategyTest.RADIUS_KM,
+        "allocation.least-loaded.k=" + AllocationStrategyTest.K})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AllocationStrategyTest {
+
+    static final int RADIUS_KM = 250;
+    static final int K = 3;
+    private static final int WAREHOUSES = 25;
+    private static final int CUSTOMERS = 5;
+    private static final int ORDERS = 40;
+    private static final List<String> STRATEGIES = List.of(NearestFirstAllocationStrategy.NAME,
+            RadiusAllocationStrategy.NAME, LeastLoadedAllocationStrategy.NAME);
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private WarehouseService warehouseService;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private DistanceService distanceService;
+
+    private final Random random = new Random(7);
+    private final Map<Long, LocationDto> warehouseLocations = new HashMap<>();
+    private final Map<String, Map<Long, Double>> stockByItemName = new HashMap<>();
+    private final Map<Long, LocationDto> customerLocations = new HashMap<>();
+
+    @BeforeAll
+    void createSyntheticDataset() {
+        for (int i = 0; i < WAREHOUSES; i++) {
+            LocationDto location = randomLocation();
+            List<WarehouseItemDto> items = new ArrayList<>();
+            Map<String, Double> amounts = new HashMap<>();
+            for (String strategy : STRATEGIES) {
+                double amount = random.nextInt(4) * 40.0;
+                if (amount > 0) {
+                    items.add(new WarehouseItemDto(null, amount, ItemDto.builder().name(itemName(strategy)).build()));
+                    amounts.put(itemName(strategy), amount);
+                }
+            }
+            Long warehouseId = warehouseService.create(WarehouseDto.builder()
+                    .name("Synthetic warehouse " + i)
+                    .location(location)
+                    .items(items)
+                    .build()).getId();
+            warehouseLocations.put(warehouseId, location);
+            amounts.forEach((itemName, amount) -> stockByItemName
+                    .computeIfAbsent(itemName, name -> new HashMap<>()).put(warehouseId, amount));
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            LocationDto location = randomLocation();
+            customerLocations.put(customerService.create(CustomerDto.builder()
+                    .name("Synthetic customer " + i)
+                    .location(location)
+                    .build()).getId(), location);
+        }
+    }
+
+    @Test
+    void RandomOrders_CreateWithNearestFirst_ShipFromNearestWarehouseWithEnoughStock()
+            throws ResourceNotFoundException {
+        assertAllocations(NearestFirstAllocationStrategy.NAME);
+    }
+
+    @Test
+    void RandomOrders_CreateWithRadius_ShipFromNearestWarehouseWithinRadiusOrReject()
+            throws ResourceNotFoundException {
+        assertAllocations(RadiusAllocationStrategy.NAME);
+    }
+
+    @Test
+    void RandomOrders_CreateWithLeastLoaded_ShipFromFullestOfKNearestWarehouses() throws ResourceNotFoundException {
+        assertAllocations(LeastLoadedAllocationStrategy.NAME);
+    }
+
+    @Test
+    void UnknownStrategy_Create_ThrowUnprocessableEntityException() {
+        // given
+        CreateOrderDto order = new CreateOrderDto(1.0, ItemDto.builder()
+                .name(itemName(NearestFirstAllocationStrategy.NAME)).build(), customerLocations.keySet().iterator()
+                .next());
+        // then
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> orderService.create(order, "farthest"));
+
+    }
+
+    private void assertAllocations(final String strategy) throws ResourceNotFoundException {
+        // given
+        String itemName = itemName(strategy);
+        Map<Long, Double> stock = stockByItemName.get(itemName);
+        List<Long> customerIds = new ArrayList<>(customerLocations.keySet());
+        int rejected = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            Long customerId = customerIds.get(random.nextInt(customerIds.size()));
+            double amount = 10.0 * (random.nextInt(6) + 1);
+            Long expected = expectedWarehouseId(strategy, customerLocations.get(customerId), stock, amount);
+            CreateOrderDto order = new CreateOrderDto(amount, ItemDto.builder().name(itemName).build(), customerId);
+            // when
+            if (expected == null) {
+                rejected++;
+                Assertions.assertThrows(UnprocessableEntityException.class,
+                        () -> orderService.create(order, strategy));
+            } else {
+                // then
+                Assertions.assertEquals(expected, orderService.create(order, strategy).getWarehouse().getId());
+                stock.merge(expected, -amount, Double::sum);
+            }
+        }
+        Assertions.assertTrue(rejected < ORDERS);
+    }
+
+    private Long expectedWarehouseId(final String strategy, final LocationDto customer, final Map<Long, Double> stock,
+                                     final double amount) {
+        Map<Long, Double> distances = warehouseLocations.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, warehouse -> distanceService
+                        .getDistanceByLatitudeAndLongitude(customer.getLatitude(), customer.getLongitude(),
+                                warehouse.getValue().getLatitude(), warehouse.getValue().getLongitude())));
+        List<Long> stocked = distances.keySet().stream()
+                .filter(warehouseId -> stock.getOrDefault(warehouseId, 0.0) >= amount)
+                .sorted(Comparator.comparing(distances::get))
+                .collect(Collectors.toList());
+        if (stocked.isEmpty()) {
+            return null;
+        }
+        switch (strategy) {
+            case RadiusAllocationStrategy.NAME:
+                return distances.get(stocked.get(0)) <= RADIUS_KM ? stocked.get(0) : null;
+            case LeastLoadedAllocationStrategy.NAME:
+                List<Long> nearest = stocked.subList(0, Math.min(K, stocked.size()));
+                return nearest.stream()
+                        .max(Comparator.comparing((Long warehouseId) -> stock.get(warehouseId))
+                                .thenComparing(warehouseId -> -nearest.indexOf(warehouseId)))
+                        .orElseThrow();
+            default:
+                return stocked.get(0);
+        }
+    }
+
+    private LocationDto randomLocation() {
+        return new LocationDto(-40.0 + random.nextDouble() * 6 - 3, -100.0 + random.nextDouble() * 6 - 3);
+    }
+
+    private static String itemName(final String strategy) {
+        return "Synthetic " + strategy + " item";
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.StockService;
+import com.itechart.orderplanningproblem.service.distance.NearestWarehouse;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Iterator;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class LeastLoadedAllocationStrategyTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    @Mock
+    private WarehouseItemRepository warehouseItemRepository;
+    @Mock
+    private WarehouseLocator warehouseLocator;
+    @Mock
+    private StockService stockService;
+
+    @Test
+    void WarehouseDrainedConcurrently_Allocate_ShipFromNextMostStockedWarehouse() {
+        // given
+        StockIndex stockIndex = new StockIndex(warehouseItemRepository);
+        stockIndex.addAmount(ITEM_ID, 1L, 50.0);
+        stockIndex.addAmount(ITEM_ID, 2L, 20.0);
+        Customer customer = Customer.builder().id(1L).build();
+        Order order = new Order(null, 10.0, null, Item.builder().id(ITEM_ID).build(), customer, null);
+        Iterator<WarehouseDistance> candidates = List.<WarehouseDistance>of(new NearestWarehouse(1L, 10.0),
+                new NearestWarehouse(2L, 20.0)).iterator();
+        LeastLoadedAllocationStrategy strategy = new LeastLoadedAllocationStrategy(warehouseLocator, stockIndex,
+                stockService, 5);
+        // when
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer)).thenReturn(new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return candidates.hasNext();
+            }
+
+            @Override
+            public WarehouseDistance next() {
+                WarehouseDistance candidate = candidates.next();
+                if (!candidates.hasNext()) {
+                    // another order drains the most stocked warehouse while the candidates are being collected
+                    stockIndex.addAmount(ITEM_ID, 1L, -50.0);
+                }
+                return candidate;
+            }
+        });
+        Mockito.when(stockService.decreaseAmount(1L, ITEM_ID, 10.0)).thenReturn(false);
+        Mockito.when(stockService.decreaseAmount(2L, ITEM_ID, 10.0)).thenReturn(true);
+        WarehouseDistance allocated = strategy.allocate(order);
+        // then
+        Assertions.assertEquals(2L, allocated.getWarehouseId());
+        Mockito.verify(stockService).decreaseAmount(1L, ITEM_ID, 10.0);
+
+    }
+
+}
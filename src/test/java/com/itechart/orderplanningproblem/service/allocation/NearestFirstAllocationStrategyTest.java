@@ -0,0 +1,72 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Item;
+import com.itechart.orderplanningproblem.entity.Order;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseItemRepository;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseDistance;
+import com.itechart.orderplanningproblem.service.StockIndex;
+import com.itechart.orderplanningproblem.service.StockService;
+import com.itechart.orderplanningproblem.service.distance.NearestWarehouse;
+import com.itechart.orderplanningproblem.service.distance.WarehouseLocator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Iterator;
+
+@ExtendWith(MockitoExtension.class)
+class NearestFirstAllocationStrategyTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    @Mock
+    private WarehouseItemRepository warehouseItemRepository;
+    @Mock
+    private DistanceRepository distanceRepository;
+    @Mock
+    private WarehouseLocator warehouseLocator;
+    @Mock
+    private StockService stockService;
+
+    @Test
+    void LastStockedWarehouseDrainedConcurrently_Allocate_StopWalkingCandidates() {
+        // given
+        StockIndex stockIndex = new StockIndex(warehouseItemRepository);
+        stockIndex.addAmount(ITEM_ID, 1L, 5.0);
+        stockIndex.addAmount(ITEM_ID, 2L, 20.0);
+        Customer customer = Customer.builder().id(1L).build();
+        Order order = new Order(null, 10.0, null, Item.builder().id(ITEM_ID).build(), customer, null);
+        NearestFirstAllocationStrategy strategy = new NearestFirstAllocationStrategy(distanceRepository,
+                warehouseLocator, stockIndex, stockService);
+        // when
+        Mockito.when(warehouseLocator.findNearestWarehouses(customer)).thenReturn(new Iterator<>() {
+
+            private long warehouseId;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public WarehouseDistance next() {
+                warehouseId++;
+                // the warehouses beyond the farthest one with enough stock can't serve the order
+                Assertions.assertTrue(warehouseId <= 2L, "Walked past the last warehouse with enough stock");
+                return new NearestWarehouse(warehouseId, warehouseId * 10.0);
+            }
+        });
+        Mockito.when(stockService.decreaseAmount(2L, ITEM_ID, 10.0)).thenReturn(false);
+        WarehouseDistance allocated = strategy.allocate(order);
+        // then
+        Assertions.assertNull(allocated);
+        Mockito.verify(stockService, Mockito.never()).decreaseAmount(1L, ITEM_ID, 10.0);
+
+    }
+
+}
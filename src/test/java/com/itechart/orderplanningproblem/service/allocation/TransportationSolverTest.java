@@ -0,0 +1,46 @@
+package com.itechart.orderplanningproblem.service.allocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TransportationSolverTest {
+
+    @Test
+    void TwoOrdersCompetingForNearestWarehouse_Solve_ReturnMinimalTotalDistance() {
+        // given
+        double[] supply = {10.0, 10.0};
+        double[] demand = {10.0, 10.0};
+        double[][] routeCost = {
+                {1.0, 2.0},
+                {3.0, 100.0}
+        };
+        // when
+        double[][] shipments = TransportationSolver.solve(supply, demand, routeCost);
+        // then
+        Assertions.assertEquals(0.0, shipments[0][0], TransportationSolver.EPSILON);
+        Assertions.assertEquals(10.0, shipments[0][1], TransportationSolver.EPSILON);
+        Assertions.assertEquals(10.0, shipments[1][0], TransportationSolver.EPSILON);
+        Assertions.assertEquals(0.0, shipments[1][1], TransportationSolver.EPSILON);
+
+    }
+
+    @Test
+    void DemandBiggerThanSupply_Solve_ShipWholeSupplyOverExistingRoutes() {
+        // given
+        double[] supply = {5.0, 4.0};
+        double[] demand = {6.0, 6.0};
+        double[][] routeCost = {
+                {1.0, Double.POSITIVE_INFINITY},
+                {2.0, 1.0}
+        };
+        // when
+        double[][] shipments = TransportationSolver.solve(supply, demand, routeCost);
+        // then
+        Assertions.assertEquals(5.0, shipments[0][0], TransportationSolver.EPSILON);
+        Assertions.assertEquals(0.0, shipments[0][1], TransportationSolver.EPSILON);
+        Assertions.assertEquals(0.0, shipments[1][0], TransportationSolver.EPSILON);
+        Assertions.assertEquals(4.0, shipments[1][1], TransportationSolver.EPSILON);
+
+    }
+
+}
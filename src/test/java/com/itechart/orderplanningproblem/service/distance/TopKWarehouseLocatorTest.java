@@ -0,0 +1,135 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.entity.Customer;
+import com.itechart.orderplanningproblem.entity.Distance;
+import com.itechart.orderplanningproblem.entity.Location;
+import com.itechart.orderplanningproblem.entity.Warehouse;
+import com.itechart.orderplanningproblem.repository.CustomerRepository;
+import com.itechart.orderplanningproblem.repository.DistanceRepository;
+import com.itechart.orderplanningproblem.repository.WarehouseRepository;
+import com.itechart.orderplanningproblem.repository.projection.CustomerDistance;
+import com.itechart.orderplanningproblem.repository.projection.CustomerLocation;
+import com.itechart.orderplanningproblem.repository.projection.WarehouseLocation;
+import com.itechart.orderplanningproblem.service.DistanceService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class TopKWarehouseLocatorTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private DistanceRepository distanceRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Captor
+    private ArgumentCaptor<List<Distance>> savedDistances;
+
+    private TopKWarehouseLocator topKWarehouseLocator;
+
+    @BeforeEach
+    void createLocator() {
+        topKWarehouseLocator = new TopKWarehouseLocator(warehouseRepository, customerRepository, distanceRepository,
+                new DistanceService(null, null), entityManager, 2);
+        List<WarehouseLocation> warehouseLocations = List.of(location(1L, 0.0, 1.0), location(2L, 0.0, 2.0),
+                location(3L, 0.0, 3.0), location(4L, 0.0, 4.0));
+        Mockito.when(warehouseRepository.findReadyLocations()).thenReturn(warehouseLocations);
+        topKWarehouseLocator.rebuild();
+    }
+
+    @Test
+    void CustomerKeepingRemovedWarehouse_RemoveWarehouse_KeepNextNearestWarehouseInstead() {
+        // given
+        Long customerId = 7L;
+        Customer customer = Customer.builder().id(customerId).build();
+        Warehouse warehouse = Warehouse.builder().id(3L).build();
+        // when
+        Mockito.when(distanceRepository.findCustomerIdsByWarehouseId(1L)).thenReturn(List.of(customerId));
+        Mockito.when(distanceRepository.findByCustomerIds(List.of(customerId))).thenReturn(List.of(
+                new CustomerDistance(10L, customerId, 1L, 111.2), new CustomerDistance(11L, customerId, 2L, 222.4)));
+        Mockito.when(customerRepository.findLocationsByIdIn(List.of(customerId)))
+                .thenReturn(List.of(new CustomerLocation(customerId, 0.0, 0.0)));
+        Mockito.when(entityManager.getReference(Customer.class, customerId)).thenReturn(customer);
+        Mockito.when(entityManager.getReference(Warehouse.class, 3L)).thenReturn(warehouse);
+        topKWarehouseLocator.removeWarehouse(1L);
+        // then
+        Mockito.verify(distanceRepository).saveAll(savedDistances.capture());
+        Assertions.assertEquals(1, savedDistances.getValue().size());
+        Assertions.assertEquals(warehouse, savedDistances.getValue().get(0).getWarehouse());
+        Assertions.assertEquals(customer, savedDistances.getValue().get(0).getCustomer());
+        Assertions.assertEquals(333.6, savedDistances.getValue().get(0).getDistanceValue(), 0.5);
+        InOrder inOrder = Mockito.inOrder(customerRepository, distanceRepository);
+        inOrder.verify(customerRepository).lockByIdIn(List.of(customerId));
+        inOrder.verify(distanceRepository).findByCustomerIds(List.of(customerId));
+
+    }
+
+    @Test
+    void WarehouseKeptByNoCustomer_RemoveWarehouse_WriteNoDistancesAndDropItFromSpatialSearch() {
+        // given
+        Customer customer = Customer.builder()
+                .location(Location.builder()
+                        .latitude(0.0)
+                        .longitude(5.0)
+                        .build())
+                .build();
+        // when
+        Mockito.when(distanceRepository.findCustomerIdsByWarehouseId(4L)).thenReturn(List.of());
+        topKWarehouseLocator.removeWarehouse(4L);
+        // then
+        Mockito.verify(distanceRepository, Mockito.never()).saveAll(Mockito.anyList());
+        Assertions.assertEquals(3L, topKWarehouseLocator.findNearestWarehouses(customer).next().getWarehouseId());
+
+    }
+
+    @Test
+    void WarehouseWithFanOutInProgress_AddWarehouse_SearchItOnlyOnceDistancesAreReady() {
+        // given
+        Customer customer = Customer.builder()
+                .location(Location.builder()
+                        .latitude(0.0)
+                        .longitude(5.0)
+                        .build())
+                .build();
+        Warehouse warehouse = Warehouse.builder()
+                .id(5L)
+                .location(Location.builder()
+                        .latitude(0.0)
+                        .longitude(5.0)
+                        .build())
+                .build();
+        // when
+        topKWarehouseLocator.addWarehouse(warehouse);
+        // then
+        Assertions.assertEquals(4L, topKWarehouseLocator.findNearestWarehouses(customer).next().getWarehouseId());
+
+        // when
+        topKWarehouseLocator.markDistancesReady(warehouse);
+        // then
+        Assertions.assertEquals(5L, topKWarehouseLocator.findNearestWarehouses(customer).next().getWarehouseId());
+
+    }
+
+    private WarehouseLocation location(final Long warehouseId, final Double latitude, final Double longitude) {
+        WarehouseLocation location = Mockito.mock(WarehouseLocation.class);
+        Mockito.when(location.getWarehouseId()).thenReturn(warehouseId);
+        Mockito.when(location.getLatitude()).thenReturn(latitude);
+        Mockito.when(location.getLongitude()).thenReturn(longitude);
+        return location;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.itechart.orderplanningproblem.service.distance;
+
+import com.itechart.orderplanningproblem.service.DistanceService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+class WarehouseKdTreeTest {
+
+    private final DistanceService distanceService = new DistanceService(null, null);
+
+    @Test
+    void RandomWarehouses_IterateNearest_ReturnWarehousesInHaversineOrder() {
+        // given
+        Random random = new Random(42);
+        Map<Long, double[]> locationsById = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            locationsById.put(id, new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180});
+        }
+        double latitude = 53.9;
+        double longitude = 27.56;
+        List<Double> expectedDistances = locationsById.values().stream()
+                .map(location -> distanceTo(latitude, longitude, location))
+                .sorted()
+                .collect(Collectors.toList());
+        // when
+        List<Double> actualDistances = new ArrayList<>();
+        Iterator<Long> nearest = new WarehouseKdTree(locationsById).nearest(latitude, longitude);
+        nearest.forEachRemaining(id -> actualDistances.add(distanceTo(latitude, longitude, locationsById.get(id))));
+        // then
+        Assertions.assertEquals(expectedDistances.size(), actualDistances.size());
+        for (int i = 0; i < expectedDistances.size(); i++) {
+            Assertions.assertEquals(expectedDistances.get(i), actualDistances.get(i), 1e-6);
+        }
+
+    }
+
+    @Test
+    void WarehousesAcrossAntimeridian_IterateNearest_ReturnWarehouseOnOtherSideFirst() {
+        // given
+        Map<Long, double[]> locationsById = Map.of(
+                1L, new double[]{0.0, 179.5},
+                2L, new double[]{0.0, 170.0});
+        // when
+        Iterator<Long> nearest = new WarehouseKdTree(locationsById).nearest(0.0, -179.5);
+        // then
+        Assertions.assertEquals(1L, nearest.next());
+        Assertions.assertEquals(2L, nearest.next());
+        Assertions.assertFalse(nearest.hasNext());
+
+    }
+
+    private double distanceTo(final double latitude, final double longitude, final double[] location) {
+        return distanceService.getDistanceByLatitudeAndLongitude(latitude, longitude, location[0], location[1]);
+    }
+
+}